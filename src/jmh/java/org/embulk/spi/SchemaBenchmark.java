@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi;
+
+import java.util.concurrent.TimeUnit;
+import org.embulk.spi.type.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link Schema#lookupColumn(String)}, and dispatching {@link ColumnVisitor} over all columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchemaBenchmark {
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        final Schema.Builder builder = Schema.builder();
+        for (int i = 0; i < SIZE; i++) {
+            switch (i % 6) {
+                case 0:
+                    builder.add("boolean" + i, Types.BOOLEAN);
+                    break;
+                case 1:
+                    builder.add("long" + i, Types.LONG);
+                    break;
+                case 2:
+                    builder.add("double" + i, Types.DOUBLE);
+                    break;
+                case 3:
+                    builder.add("string" + i, Types.STRING);
+                    break;
+                case 4:
+                    builder.add("timestamp" + i, Types.TIMESTAMP);
+                    break;
+                default:
+                    builder.add("json" + i, Types.JSON);
+                    break;
+            }
+        }
+        this.schema = builder.build();
+        this.lastName = new String(this.schema.getColumnName(SIZE - 1));
+        this.visitor = new ConsumingVisitor(blackhole);
+        this.compiled = this.schema.compileVisitor(this.visitor);
+    }
+
+    @Benchmark
+    public Column lookupLastColumn() {
+        return this.schema.lookupColumn(this.lastName);
+    }
+
+    @Benchmark
+    public void visitColumns() {
+        this.schema.visitColumns(this.visitor);
+    }
+
+    @Benchmark
+    public void visitColumnsCompiled() {
+        this.compiled.visitColumns();
+    }
+
+    private static class ConsumingVisitor implements ColumnVisitor {
+        ConsumingVisitor(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void booleanColumn(final Column column) {
+            this.blackhole.consume(column);
+        }
+
+        @Override
+        public void longColumn(final Column column) {
+            this.blackhole.consume(column);
+        }
+
+        @Override
+        public void doubleColumn(final Column column) {
+            this.blackhole.consume(column);
+        }
+
+        @Override
+        public void stringColumn(final Column column) {
+            this.blackhole.consume(column);
+        }
+
+        @Override
+        public void timestampColumn(final Column column) {
+            this.blackhole.consume(column);
+        }
+
+        @Override
+        public void jsonColumn(final Column column) {
+            this.blackhole.consume(column);
+        }
+
+        private final Blackhole blackhole;
+    }
+
+    private static final int SIZE = 64;
+
+    private Schema schema;
+    private String lastName;
+    private ColumnVisitor visitor;
+    private CompiledColumnVisitor compiled;
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi.json;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks construction, lookup, and stringification of {@link JsonObject}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonObjectBenchmark {
+    @Setup
+    public void setup() {
+        this.keys = new String[SIZE];
+        this.values = new JsonValue[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.keys[i] = "key" + i;
+            this.values[i] = JsonLong.of(i);
+        }
+        // Not by #ofUnsafe, which does not cache the key index.
+        this.object = this.build();
+        this.lastKey = new String(this.keys[SIZE - 1]);
+    }
+
+    @Benchmark
+    public JsonObject build() {
+        final JsonObject.Builder builder = JsonObject.builder();
+        for (int i = 0; i < SIZE; i++) {
+            builder.put(this.keys[i], this.values[i]);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public JsonObject ofEntries() {
+        return JsonObject.ofUnsafe(this.keys.clone(), this.values.clone());
+    }
+
+    @Benchmark
+    public JsonValue get() {
+        return this.object.get(this.lastKey);
+    }
+
+    @Benchmark
+    public String toJson() {
+        // A fresh JsonObject not to measure its cached JSON.
+        return JsonObject.ofUnsafe(this.keys, this.values).toJson();
+    }
+
+    private static final int SIZE = 16;
+
+    private String[] keys;
+    private JsonValue[] values;
+    private JsonObject object;
+    private String lastKey;
+}
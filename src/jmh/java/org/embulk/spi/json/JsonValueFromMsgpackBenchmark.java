@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi.json;
+
+import java.util.concurrent.TimeUnit;
+import org.msgpack.value.Value;
+import org.msgpack.value.ValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link JsonValue#fromMsgpack(Value)} on a nested MessagePack map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonValueFromMsgpackBenchmark {
+    @Setup
+    public void setup() {
+        final ValueFactory.MapBuilder builder = ValueFactory.newMapBuilder();
+        for (int i = 0; i < 16; i++) {
+            builder.put(ValueFactory.newString("key" + i), ValueFactory.newArray(
+                    ValueFactory.newInteger(i), ValueFactory.newString("value" + i), ValueFactory.newFloat(i + 0.5)));
+        }
+        this.msgpack = builder.build();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")  // To call JsonValue#fromMsgpack().
+    public JsonValue fromMsgpack() {
+        return JsonValue.fromMsgpack(this.msgpack);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")  // To call JsonValue#fromMsgpack().
+    public String fromMsgpackToJson() {
+        return JsonValue.fromMsgpack(this.msgpack).toJson();
+    }
+
+    private Value msgpack;
+}
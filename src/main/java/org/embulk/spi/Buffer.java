@@ -18,6 +18,7 @@ package org.embulk.spi;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -103,6 +104,37 @@ public abstract class Buffer {
      */
     public abstract int capacity();
 
+    /**
+     * Returns {@code true} if the content of this {@link Buffer} is stored out of the Java heap.
+     *
+     * <p>A direct {@link Buffer} does not have the internal {@code byte} array. Its {@link #array()} may throw
+     * {@link UnsupportedOperationException}.
+     *
+     * @return {@code true} if this {@link Buffer} is direct
+     *
+     * @see NioBuffer
+     *
+     * @since 0.11
+     */
+    public boolean isDirect() {
+        return false;
+    }
+
+    /**
+     * Returns a read-only {@link java.nio.ByteBuffer} view of this {@link Buffer} from index {@code 0} until its limit.
+     *
+     * <p>The content is not copied. The returned {@link java.nio.ByteBuffer} is positioned at {@code 0}, and limited at
+     * {@link #limit()}. It can be passed directly to, for example, {@link java.nio.channels.WritableByteChannel#write}.
+     *
+     * @return a read-only {@link java.nio.ByteBuffer} view of this {@link Buffer}
+     *
+     * @since 0.11
+     */
+    @SuppressWarnings("deprecation")  // Buffer implementations that do not override it are backed by a byte array.
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(this.array(), this.offset(), this.limit()).slice().asReadOnlyBuffer();
+    }
+
     /**
      * Copies an array from {@code source}, beginning at {@code sourceIndex}, to {@code index} of this {@link Buffer}.
      *
@@ -127,6 +159,21 @@ public abstract class Buffer {
      */
     public abstract void setBytes(int index, Buffer source, int sourceIndex, int length);
 
+    /**
+     * Copies the remaining bytes of {@code source} to {@code index} of this {@link Buffer}.
+     *
+     * <p>The position of {@code source} is advanced by the number of bytes copied, which is its number of remaining bytes.
+     *
+     * @param index  starting position in this destination {@link Buffer}
+     * @param source  the source {@link java.nio.ByteBuffer}
+     *
+     * @since 0.11
+     */
+    @SuppressWarnings("deprecation")  // Buffer implementations that do not override it are backed by a byte array.
+    public void setBytes(final int index, final ByteBuffer source) {
+        source.get(this.array(), this.offset() + index, source.remaining());
+    }
+
     /**
      * Copies an array from this {@link Buffer}, beginning at {@code index}, to {@code destIndex} of {@code dest}.
      *
@@ -151,13 +198,78 @@ public abstract class Buffer {
      */
     public abstract void getBytes(int index, Buffer dest, int destIndex, int length);
 
+    /**
+     * Copies bytes from this {@link Buffer}, beginning at {@code index}, to {@code dest} until {@code dest} is filled.
+     *
+     * <p>The position of {@code dest} is advanced by the number of bytes copied, which is its number of remaining bytes.
+     *
+     * @param index  starting position in this source {@link Buffer}
+     * @param dest  the destination {@link java.nio.ByteBuffer}
+     *
+     * @since 0.11
+     */
+    @SuppressWarnings("deprecation")  // Buffer implementations that do not override it are backed by a byte array.
+    public void getBytes(final int index, final ByteBuffer dest) {
+        dest.put(this.array(), this.offset() + index, dest.remaining());
+    }
+
     /**
      * Releases this {@link Buffer}.
      *
+     * <p>If this {@link Buffer} supports reference counting, it decrements the reference count. It is actually released
+     * when the reference count reaches {@code 0}.
+     *
      * @since 0.4.0
      */
     public abstract void release();
 
+    /**
+     * Increments the reference count of this {@link Buffer}, so that one more {@link #release()} is required to release it.
+     *
+     * <p>Reference counting is optional for {@link Buffer} implementations. It throws {@link UnsupportedOperationException}
+     * by default. {@link NioBuffer} supports it.
+     *
+     * @return this {@link Buffer} itself
+     * @throws UnsupportedOperationException  if this {@link Buffer} does not support reference counting
+     *
+     * @since 0.11
+     */
+    public Buffer retain() {
+        throw new UnsupportedOperationException(this.getClass().getName() + " does not support reference counting.");
+    }
+
+    /**
+     * Returns a new {@link Buffer} sharing the content of this {@link Buffer} from {@code index} for {@code length} bytes.
+     *
+     * <p>The returned {@link Buffer} shares the reference count with this {@link Buffer}, and it has been retained.
+     * Both must be released. It throws {@link UnsupportedOperationException} by default. {@link NioBuffer} supports it.
+     *
+     * @param index  starting position in this {@link Buffer}
+     * @param length  the number of bytes to share
+     * @return a new {@link Buffer} sharing the content, whose offset is {@code 0}, and whose limit is {@code length}
+     * @throws UnsupportedOperationException  if this {@link Buffer} does not support reference counting
+     *
+     * @since 0.11
+     */
+    public Buffer slice(final int index, final int length) {
+        throw new UnsupportedOperationException(this.getClass().getName() + " does not support reference counting.");
+    }
+
+    /**
+     * Returns a new {@link Buffer} sharing the entire content of this {@link Buffer}, with its own offset and limit.
+     *
+     * <p>The returned {@link Buffer} shares the reference count with this {@link Buffer}, and it has been retained.
+     * Both must be released. It throws {@link UnsupportedOperationException} by default. {@link NioBuffer} supports it.
+     *
+     * @return a new {@link Buffer} sharing the content
+     * @throws UnsupportedOperationException  if this {@link Buffer} does not support reference counting
+     *
+     * @since 0.11
+     */
+    public Buffer duplicate() {
+        throw new UnsupportedOperationException(this.getClass().getName() + " does not support reference counting.");
+    }
+
     /**
      * Creates a new {@link Buffer} instance.
      *
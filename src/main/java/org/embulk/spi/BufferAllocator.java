@@ -16,6 +16,9 @@
 
 package org.embulk.spi;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Represents an allocator of {@link org.embulk.spi.Buffer}.
  *
@@ -40,4 +43,51 @@ public interface BufferAllocator {
      * @since 0.4.0
      */
     Buffer allocate(int minimumCapacity);
+
+    /**
+     * Allocates a {@link org.embulk.spi.Buffer} with the size of {@code minimumCapacity} at least, waiting up to the timeout
+     * if this {@link org.embulk.spi.BufferAllocator} is short of its memory budget.
+     *
+     * <p>A producer of {@link org.embulk.spi.Page}s can back off with it when too many {@link org.embulk.spi.Page}s are
+     * in flight. It always allocates immediately by default, for {@link org.embulk.spi.BufferAllocator}s without a budget.
+     *
+     * @param minimumCapacity  the minimum size of the {@link org.embulk.spi.Buffer} allocated
+     * @param timeout  the maximum time to wait
+     * @param unit  the time unit of {@code timeout}
+     * @return {@link org.embulk.spi.Buffer} allocated in {@link java.util.Optional}, or an empty {@link java.util.Optional} if timed out
+     * @throws InterruptedException  if interrupted while waiting
+     *
+     * @since 0.11
+     */
+    default Optional<Buffer> tryAllocate(final int minimumCapacity, final long timeout, final TimeUnit unit) throws InterruptedException {
+        return Optional.of(this.allocate(minimumCapacity));
+    }
+
+    /**
+     * Allocates a direct (off-heap) {@link org.embulk.spi.Buffer} with the size of {@code minimumCapacity} at least.
+     *
+     * <p>It allocates a new {@link org.embulk.spi.NioBuffer} by default.
+     *
+     * @param minimumCapacity  the minimum size of the {@link org.embulk.spi.Buffer} allocated
+     * @return direct {@link org.embulk.spi.Buffer} allocated
+     *
+     * @since 0.11
+     */
+    default Buffer allocateDirect(final int minimumCapacity) {
+        return NioBuffer.allocateDirect(minimumCapacity);
+    }
+
+    /**
+     * Returns a snapshot of metrics of {@link org.embulk.spi.Buffer}s allocated by this {@link org.embulk.spi.BufferAllocator}.
+     *
+     * <p>It is reachable from plugins through {@link Exec#getBufferAllocator()}. It returns an empty {@link java.util.Optional}
+     * by default, for {@link org.embulk.spi.BufferAllocator}s that do not track their {@link org.embulk.spi.Buffer}s.
+     *
+     * @return the snapshot of metrics in {@link java.util.Optional}
+     *
+     * @since 0.11
+     */
+    default Optional<BufferAllocatorMetrics> getMetrics() {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+/**
+ * A snapshot of metrics of {@link Buffer}s allocated by a {@link BufferAllocator}.
+ *
+ * <p>It is returned from {@link BufferAllocator#getMetrics()} by {@link BufferAllocator}s that track their {@link Buffer}s.
+ *
+ * @since 0.11
+ */
+public final class BufferAllocatorMetrics {
+    private BufferAllocatorMetrics(
+            final long allocationCount,
+            final long releaseCount,
+            final long liveBytes,
+            final long peakLiveBytes,
+            final long leakCount,
+            final long elapsedNanos) {
+        this.allocationCount = allocationCount;
+        this.releaseCount = releaseCount;
+        this.liveBytes = liveBytes;
+        this.peakLiveBytes = peakLiveBytes;
+        this.leakCount = leakCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Creates a snapshot of metrics.
+     *
+     * @param allocationCount  the number of {@link Buffer}s allocated
+     * @param releaseCount  the number of {@link Buffer}s released
+     * @param liveBytes  the total capacity of {@link Buffer}s allocated, and not released yet
+     * @param peakLiveBytes  the peak of {@code liveBytes}
+     * @param leakCount  the number of {@link Buffer}s detected to be garbage-collected without being released
+     * @param elapsedNanos  the time elapsed since the {@link BufferAllocator} started in nanoseconds
+     * @return the snapshot of metrics
+     *
+     * @since 0.11
+     */
+    public static BufferAllocatorMetrics of(
+            final long allocationCount,
+            final long releaseCount,
+            final long liveBytes,
+            final long peakLiveBytes,
+            final long leakCount,
+            final long elapsedNanos) {
+        return new BufferAllocatorMetrics(allocationCount, releaseCount, liveBytes, peakLiveBytes, leakCount, elapsedNanos);
+    }
+
+    /**
+     * Returns the number of {@link Buffer}s allocated.
+     *
+     * @return the number of {@link Buffer}s allocated
+     *
+     * @since 0.11
+     */
+    public long getAllocationCount() {
+        return this.allocationCount;
+    }
+
+    /**
+     * Returns the number of {@link Buffer}s released.
+     *
+     * @return the number of {@link Buffer}s released
+     *
+     * @since 0.11
+     */
+    public long getReleaseCount() {
+        return this.releaseCount;
+    }
+
+    /**
+     * Returns the number of {@link Buffer}s allocated, and not released yet.
+     *
+     * <p>It excludes {@link Buffer}s detected as leaks, but includes leaked {@link Buffer}s not detected yet.
+     *
+     * @return the number of outstanding {@link Buffer}s
+     *
+     * @since 0.11
+     */
+    public long getOutstandingCount() {
+        return this.allocationCount - this.releaseCount - this.leakCount;
+    }
+
+    /**
+     * Returns the total capacity of {@link Buffer}s allocated, and not released yet.
+     *
+     * <p>Same as {@link #getOutstandingCount()}, it excludes {@link Buffer}s detected as leaks.
+     *
+     * @return the live bytes
+     *
+     * @since 0.11
+     */
+    public long getLiveBytes() {
+        return this.liveBytes;
+    }
+
+    /**
+     * Returns the peak of the live bytes.
+     *
+     * @return the peak of the live bytes
+     *
+     * @since 0.11
+     */
+    public long getPeakLiveBytes() {
+        return this.peakLiveBytes;
+    }
+
+    /**
+     * Returns the number of {@link Buffer}s detected to be garbage-collected without being released.
+     *
+     * <p>Leaks are detected only after they are garbage-collected, and only on tracked {@link Buffer}s, such as
+     * {@link Buffer}s sampled for leak detection.
+     *
+     * @return the number of leaks detected
+     *
+     * @since 0.11
+     */
+    public long getLeakCount() {
+        return this.leakCount;
+    }
+
+    /**
+     * Returns the time elapsed since the {@link BufferAllocator} started in nanoseconds.
+     *
+     * @return the elapsed time in nanoseconds
+     *
+     * @since 0.11
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * Returns the average number of {@link Buffer}s allocated per second since the {@link BufferAllocator} started.
+     *
+     * <p>Compare two snapshots for the rate in a specific period.
+     *
+     * @return the number of allocations per second
+     *
+     * @since 0.11
+     */
+    public double getAllocationsPerSecond() {
+        if (this.elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return this.allocationCount * 1_000_000_000.0 / this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferAllocatorMetrics{allocations=" + this.allocationCount
+                + ", releases=" + this.releaseCount
+                + ", liveBytes=" + this.liveBytes
+                + ", peakLiveBytes=" + this.peakLiveBytes
+                + ", leaks=" + this.leakCount
+                + ", elapsedNanos=" + this.elapsedNanos + "}";
+    }
+
+    private final long allocationCount;
+    private final long releaseCount;
+    private final long liveBytes;
+    private final long peakLiveBytes;
+    private final long leakCount;
+    private final long elapsedNanos;
+}
@@ -17,12 +17,6 @@
 package org.embulk.spi;
 
 import java.util.Objects;
-import org.embulk.spi.type.BooleanType;
-import org.embulk.spi.type.DoubleType;
-import org.embulk.spi.type.JsonType;
-import org.embulk.spi.type.LongType;
-import org.embulk.spi.type.StringType;
-import org.embulk.spi.type.TimestampType;
 import org.embulk.spi.type.Type;
 
 /**
@@ -38,6 +32,7 @@ public class Column {
         this.index = index;
         this.name = name;
         this.type = type;
+        this.kind = type == null ? null : type.getKind();
     }
 
     /**
@@ -65,21 +60,35 @@ public class Column {
      * @since 0.4.0
      */
     public void visit(final ColumnVisitor visitor) {
-        if (this.type instanceof BooleanType) {
-            visitor.booleanColumn(this);
-        } else if (this.type instanceof LongType) {
-            visitor.longColumn(this);
-        } else if (this.type instanceof DoubleType) {
-            visitor.doubleColumn(this);
-        } else if (this.type instanceof StringType) {
-            visitor.stringColumn(this);
-        } else if (this.type instanceof TimestampType) {
-            visitor.timestampColumn(this);
-        } else if (this.type instanceof JsonType) {
-            visitor.jsonColumn(this);
-        } else {
+        if (this.kind == null) {
             throw new IllegalArgumentException("Column has an unexpected type: " + this.type);
         }
+        switch (this.kind) {
+            case BOOLEAN:
+                visitor.booleanColumn(this);
+                break;
+            case LONG:
+                visitor.longColumn(this);
+                break;
+            case DOUBLE:
+                visitor.doubleColumn(this);
+                break;
+            case STRING:
+                visitor.stringColumn(this);
+                break;
+            case TIMESTAMP:
+                visitor.timestampColumn(this);
+                break;
+            case JSON:
+                visitor.jsonColumn(this);
+                break;
+            default:
+                throw new IllegalArgumentException("Column has an unexpected type: " + this.type);
+        }
+    }
+
+    Type.Kind getKind() {
+        return this.kind;
     }
 
     /**
@@ -120,4 +129,6 @@ public class Column {
     private final int index;
     private final String name;
     private final Type type;
+
+    private final Type.Kind kind;
 }
@@ -0,0 +1,582 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.embulk.spi.json.JsonValue;
+import org.embulk.spi.type.BooleanType;
+import org.embulk.spi.type.DoubleType;
+import org.embulk.spi.type.JsonType;
+import org.embulk.spi.type.LongType;
+import org.embulk.spi.type.StringType;
+import org.embulk.spi.type.TimestampType;
+import org.embulk.spi.type.Type;
+
+/**
+ * A column-oriented view of data records in a {@link Page}.
+ *
+ * <p>Each column is represented by a Java array of its values indexed by the position of the record, and a null bitmap.
+ * The array type depends on the column type: {@code boolean[]} for {@code boolean}, {@code long[]} for {@code long},
+ * {@code double[]} for {@code double}, {@code String[]} for {@code string}, {@link java.time.Instant}{@code []} for
+ * {@code timestamp}, and {@link org.embulk.spi.json.JsonValue}{@code []} for {@code json}.
+ *
+ * <p>The null bitmap is a {@code long[]} where the bit {@code (1L << record)} of the element {@code [record >>> 6]}
+ * is set if the value of the record is {@code null}. The value in the array is unspecified for a {@code null} record.
+ *
+ * <p>The arrays returned from {@link ColumnBatch} are its internal representation as-is so that plugins can process
+ * a whole {@link Page} in tight loops without copying. They must not be modified.
+ *
+ * @since 0.11
+ */
+public final class ColumnBatch {
+    ColumnBatch(final Schema schema, final int recordCount, final Object[] vectors, final long[][] nullBitmaps) {
+        this.schema = schema;
+        this.recordCount = recordCount;
+        this.vectors = vectors;
+        this.nullBitmaps = nullBitmaps;
+    }
+
+    /**
+     * Returns a {@link ColumnBatch.Builder} to build a {@link ColumnBatch} with the specified number of records.
+     *
+     * @param schema  the {@link Schema} of the {@link ColumnBatch} to build
+     * @param recordCount  the number of records in the {@link ColumnBatch} to build
+     * @return a {@link ColumnBatch.Builder}
+     *
+     * @since 0.11
+     */
+    public static Builder builder(final Schema schema, final int recordCount) {
+        return new Builder(schema, recordCount);
+    }
+
+    /**
+     * Builds a {@link ColumnBatch} from column vectors configured by {@code set*} methods.
+     *
+     * <p>The arrays are not copied. They must not be modified after they are set to the builder.
+     *
+     * <p>A null bitmap can be {@code null} if the column contains no {@code null}. A column that is not configured
+     * is filled with {@code null}.
+     *
+     * @since 0.11
+     */
+    public static final class Builder {
+        private Builder(final Schema schema, final int recordCount) {
+            if (schema == null) {
+                throw new NullPointerException("schema is null.");
+            }
+            if (recordCount < 0) {
+                throw new IllegalArgumentException("recordCount is negative.");
+            }
+            this.schema = schema;
+            this.recordCount = recordCount;
+            this.vectors = new Object[schema.size()];
+            this.nullBitmaps = new long[schema.size()][];
+        }
+
+        /**
+         * Sets the values of a {@code boolean} column.
+         *
+         * @param column  the {@code boolean} column
+         * @param values  the values, not null
+         * @param nullBitmap  the null bitmap, or {@code null} if no {@code null}
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setBooleans(final Column column, final boolean[] values, final long[] nullBitmap) {
+            if (values == null) {
+                throw new NullPointerException("values is null.");
+            }
+            return this.setVector(column, BooleanType.class, values, values.length, nullBitmap);
+        }
+
+        /**
+         * Sets the values of a {@code long} column.
+         *
+         * @param column  the {@code long} column
+         * @param values  the values, not null
+         * @param nullBitmap  the null bitmap, or {@code null} if no {@code null}
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setLongs(final Column column, final long[] values, final long[] nullBitmap) {
+            if (values == null) {
+                throw new NullPointerException("values is null.");
+            }
+            return this.setVector(column, LongType.class, values, values.length, nullBitmap);
+        }
+
+        /**
+         * Sets the values of a {@code double} column.
+         *
+         * @param column  the {@code double} column
+         * @param values  the values, not null
+         * @param nullBitmap  the null bitmap, or {@code null} if no {@code null}
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setDoubles(final Column column, final double[] values, final long[] nullBitmap) {
+            if (values == null) {
+                throw new NullPointerException("values is null.");
+            }
+            return this.setVector(column, DoubleType.class, values, values.length, nullBitmap);
+        }
+
+        /**
+         * Sets the values of a {@code string} column.
+         *
+         * <p>A {@code null} element is considered as {@code null} even if it is not set in the null bitmap.
+         *
+         * @param column  the {@code string} column
+         * @param values  the values, not null
+         * @param nullBitmap  the null bitmap, or {@code null} if no {@code null}
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setStrings(final Column column, final String[] values, final long[] nullBitmap) {
+            if (values == null) {
+                throw new NullPointerException("values is null.");
+            }
+            return this.setVector(column, StringType.class, values, values.length, nullBitmap);
+        }
+
+        /**
+         * Sets the values of a {@code timestamp} column.
+         *
+         * <p>A {@code null} element is considered as {@code null} even if it is not set in the null bitmap.
+         *
+         * @param column  the {@code timestamp} column
+         * @param values  the values, not null
+         * @param nullBitmap  the null bitmap, or {@code null} if no {@code null}
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setTimestampInstants(final Column column, final Instant[] values, final long[] nullBitmap) {
+            if (values == null) {
+                throw new NullPointerException("values is null.");
+            }
+            return this.setVector(column, TimestampType.class, values, values.length, nullBitmap);
+        }
+
+        /**
+         * Sets the values of a {@code json} column.
+         *
+         * <p>A {@code null} element is considered as {@code null} even if it is not set in the null bitmap.
+         *
+         * @param column  the {@code json} column
+         * @param values  the values, not null
+         * @param nullBitmap  the null bitmap, or {@code null} if no {@code null}
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setJsonValues(final Column column, final JsonValue[] values, final long[] nullBitmap) {
+            if (values == null) {
+                throw new NullPointerException("values is null.");
+            }
+            return this.setVector(column, JsonType.class, values, values.length, nullBitmap);
+        }
+
+        /**
+         * Returns a {@link ColumnBatch} that is built from column vectors configured by {@code set*} methods.
+         *
+         * @return a {@link ColumnBatch}
+         *
+         * @since 0.11
+         */
+        public ColumnBatch build() {
+            final Object[] vectors = new Object[this.vectors.length];
+            final long[][] nullBitmaps = new long[this.nullBitmaps.length][];
+            for (int i = 0; i < vectors.length; i++) {
+                if (this.vectors[i] == null) {
+                    vectors[i] = newVector(this.schema.getColumn(i), this.recordCount);
+                    nullBitmaps[i] = newNullBitmap(this.recordCount);
+                    Arrays.fill(nullBitmaps[i], -1L);
+                } else {
+                    vectors[i] = this.vectors[i];
+                    nullBitmaps[i] = this.nullBitmaps[i];
+                    if (vectors[i] instanceof Object[]) {
+                        nullBitmaps[i] = markNullElements((Object[]) vectors[i], nullBitmaps[i], this.recordCount);
+                    }
+                }
+            }
+            return new ColumnBatch(this.schema, this.recordCount, vectors, nullBitmaps);
+        }
+
+        // Sets bits of null elements in a copy of the null bitmap, not to modify the null bitmap given by the caller.
+        private static long[] markNullElements(final Object[] values, final long[] nullBitmap, final int recordCount) {
+            long[] marked = nullBitmap;
+            for (int record = 0; record < recordCount; record++) {
+                if (values[record] == null && !isNullInBitmap(marked, record)) {
+                    if (marked == nullBitmap) {
+                        marked = nullBitmap.clone();
+                    }
+                    marked[record >>> 6] |= (1L << record);
+                }
+            }
+            return marked;
+        }
+
+        private Builder setVector(
+                final Column column,
+                final Class<? extends Type> expectedType,
+                final Object values,
+                final int length,
+                final long[] nullBitmap) {
+            if (column == null) {
+                throw new NullPointerException("column is null.");
+            }
+            final int index = column.getIndex();
+            if (index < 0 || index >= this.vectors.length) {
+                throw new IllegalArgumentException("Column '" + column.getName() + "' is not in the schema.");
+            }
+            if (!expectedType.isInstance(this.schema.getColumnType(index))) {
+                throw new IllegalArgumentException("Column '" + column.getName() + "' is not " + this.schema.getColumnType(index) + ".");
+            }
+            if (length < this.recordCount) {
+                throw new IllegalArgumentException("values are fewer than the number of records.");
+            }
+            if (nullBitmap == null) {
+                this.nullBitmaps[index] = newNullBitmap(this.recordCount);
+            } else if (nullBitmap.length < (this.recordCount + 63) >>> 6) {
+                throw new IllegalArgumentException("nullBitmap is shorter than the number of records.");
+            } else {
+                this.nullBitmaps[index] = nullBitmap;
+            }
+            this.vectors[index] = values;
+            return this;
+        }
+
+        private final Schema schema;
+        private final int recordCount;
+        private final Object[] vectors;
+        private final long[][] nullBitmaps;
+    }
+
+    /**
+     * Returns the {@link Schema} of this {@link ColumnBatch}.
+     *
+     * @return the {@link Schema} of this {@link ColumnBatch}
+     *
+     * @since 0.11
+     */
+    public Schema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Returns the number of records in this {@link ColumnBatch}.
+     *
+     * @return the number of records in this {@link ColumnBatch}
+     *
+     * @since 0.11
+     */
+    public int getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * Returns {@code true} if the value of the specified record at the specified column is {@code null}.
+     *
+     * @param column  the column
+     * @param record  the position of the record
+     * @return {@code true} if the value is {@code null}
+     *
+     * @since 0.11
+     */
+    public boolean isNull(final Column column, final int record) {
+        return isNullInBitmap(this.nullBitmaps[column.getIndex()], record);
+    }
+
+    /**
+     * Returns the null bitmap of the specified column.
+     *
+     * @param column  the column
+     * @return the null bitmap of the column, which must not be modified
+     *
+     * @since 0.11
+     */
+    public long[] getNullBitmap(final Column column) {
+        return this.nullBitmaps[column.getIndex()];
+    }
+
+    /**
+     * Returns the values of the specified {@code boolean} column.
+     *
+     * @param column  the {@code boolean} column
+     * @return the values of the column, which must not be modified
+     * @throws IllegalArgumentException  if the column is not {@code boolean}
+     *
+     * @since 0.11
+     */
+    public boolean[] getBooleans(final Column column) {
+        final Object vector = this.vectors[column.getIndex()];
+        if (!(vector instanceof boolean[])) {
+            throw new IllegalArgumentException("Column '" + column.getName() + "' is not boolean.");
+        }
+        return (boolean[]) vector;
+    }
+
+    /**
+     * Returns the values of the specified {@code long} column.
+     *
+     * @param column  the {@code long} column
+     * @return the values of the column, which must not be modified
+     * @throws IllegalArgumentException  if the column is not {@code long}
+     *
+     * @since 0.11
+     */
+    public long[] getLongs(final Column column) {
+        final Object vector = this.vectors[column.getIndex()];
+        if (!(vector instanceof long[])) {
+            throw new IllegalArgumentException("Column '" + column.getName() + "' is not long.");
+        }
+        return (long[]) vector;
+    }
+
+    /**
+     * Returns the values of the specified {@code double} column.
+     *
+     * @param column  the {@code double} column
+     * @return the values of the column, which must not be modified
+     * @throws IllegalArgumentException  if the column is not {@code double}
+     *
+     * @since 0.11
+     */
+    public double[] getDoubles(final Column column) {
+        final Object vector = this.vectors[column.getIndex()];
+        if (!(vector instanceof double[])) {
+            throw new IllegalArgumentException("Column '" + column.getName() + "' is not double.");
+        }
+        return (double[]) vector;
+    }
+
+    /**
+     * Returns the values of the specified {@code string} column.
+     *
+     * @param column  the {@code string} column
+     * @return the values of the column, which must not be modified
+     * @throws IllegalArgumentException  if the column is not {@code string}
+     *
+     * @since 0.11
+     */
+    public String[] getStrings(final Column column) {
+        final Object vector = this.vectors[column.getIndex()];
+        if (!(vector instanceof String[])) {
+            throw new IllegalArgumentException("Column '" + column.getName() + "' is not string.");
+        }
+        return (String[]) vector;
+    }
+
+    /**
+     * Returns the values of the specified {@code timestamp} column.
+     *
+     * @param column  the {@code timestamp} column
+     * @return the values of the column, which must not be modified
+     * @throws IllegalArgumentException  if the column is not {@code timestamp}
+     *
+     * @since 0.11
+     */
+    public Instant[] getTimestampInstants(final Column column) {
+        final Object vector = this.vectors[column.getIndex()];
+        if (!(vector instanceof Instant[])) {
+            throw new IllegalArgumentException("Column '" + column.getName() + "' is not timestamp.");
+        }
+        return (Instant[]) vector;
+    }
+
+    /**
+     * Returns the values of the specified {@code json} column.
+     *
+     * @param column  the {@code json} column
+     * @return the values of the column, which must not be modified
+     * @throws IllegalArgumentException  if the column is not {@code json}
+     *
+     * @since 0.11
+     */
+    public JsonValue[] getJsonValues(final Column column) {
+        final Object vector = this.vectors[column.getIndex()];
+        if (!(vector instanceof JsonValue[])) {
+            throw new IllegalArgumentException("Column '" + column.getName() + "' is not json.");
+        }
+        return (JsonValue[]) vector;
+    }
+
+    /**
+     * Reads all the records in {@code page} into a new {@link ColumnBatch} through the row-oriented cursor of {@code reader}.
+     *
+     * <p>It is the fallback for {@link PageReader#readColumnBatch(Page)} when the {@link PageReader} implementation does not
+     * read columns directly from the {@link Page}.
+     */
+    static ColumnBatch readFrom(final PageReader reader, final Page page) {
+        final int recordCount = PageReader.getRecordCount(page);
+        reader.setPage(page);
+        return readFrom(reader, recordCount);
+    }
+
+    /**
+     * Reads the remaining records, up to {@code recordCount}, in the current {@link Page} of {@code reader}.
+     */
+    static ColumnBatch readFrom(final PageReader reader, final int recordCount) {
+        final Schema schema = reader.getSchema();
+        final List<Column> columns = schema.getColumns();
+
+        final Type.Kind[] kinds = kindsOf(columns);
+        final Object[] vectors = new Object[columns.size()];
+        final long[][] nullBitmaps = new long[columns.size()][];
+        for (final Column column : columns) {
+            vectors[column.getIndex()] = newVector(column, recordCount);
+            nullBitmaps[column.getIndex()] = newNullBitmap(recordCount);
+        }
+
+        int record = 0;
+        while (record < recordCount && reader.nextRecord()) {
+            for (int i = 0; i < vectors.length; i++) {
+                if (reader.isNull(i)) {
+                    nullBitmaps[i][record >>> 6] |= (1L << record);
+                    continue;
+                }
+                switch (kinds[i]) {
+                    case BOOLEAN:
+                        ((boolean[]) vectors[i])[record] = reader.getBoolean(i);
+                        break;
+                    case LONG:
+                        ((long[]) vectors[i])[record] = reader.getLong(i);
+                        break;
+                    case DOUBLE:
+                        ((double[]) vectors[i])[record] = reader.getDouble(i);
+                        break;
+                    case STRING:
+                        ((String[]) vectors[i])[record] = reader.getString(i);
+                        break;
+                    case TIMESTAMP:
+                        ((Instant[]) vectors[i])[record] = reader.getTimestampInstant(i);
+                        break;
+                    case JSON:
+                        ((JsonValue[]) vectors[i])[record] = reader.getJsonValue(i);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Column has an unexpected type: " + columns.get(i).getType());
+                }
+            }
+            record++;
+        }
+
+        return new ColumnBatch(schema, record, vectors, nullBitmaps);
+    }
+
+    /**
+     * Writes all the records in this {@link ColumnBatch} into {@code builder} through its row-oriented setters.
+     *
+     * <p>It is the fallback for {@link PageBuilder#addColumnBatch(ColumnBatch)} when the {@link PageBuilder} implementation
+     * does not write columns directly into {@link Page}s.
+     */
+    void writeTo(final PageBuilder builder) {
+        if (!this.schema.equals(builder.getSchema())) {
+            throw new IllegalArgumentException("ColumnBatch has a different schema from PageBuilder.");
+        }
+
+        final List<Column> columns = this.schema.getColumns();
+        final Type.Kind[] kinds = kindsOf(columns);
+        for (int record = 0; record < this.recordCount; record++) {
+            for (int i = 0; i < this.vectors.length; i++) {
+                // Null elements of Object vectors are also marked in the null bitmap when the ColumnBatch is built.
+                if (isNullInBitmap(this.nullBitmaps[i], record)) {
+                    builder.setNull(i);
+                    continue;
+                }
+                switch (kinds[i]) {
+                    case BOOLEAN:
+                        builder.setBoolean(i, ((boolean[]) this.vectors[i])[record]);
+                        break;
+                    case LONG:
+                        builder.setLong(i, ((long[]) this.vectors[i])[record]);
+                        break;
+                    case DOUBLE:
+                        builder.setDouble(i, ((double[]) this.vectors[i])[record]);
+                        break;
+                    case STRING:
+                        builder.setString(i, ((String[]) this.vectors[i])[record]);
+                        break;
+                    case TIMESTAMP:
+                        builder.setTimestamp(i, ((Instant[]) this.vectors[i])[record]);
+                        break;
+                    case JSON:
+                        builder.setJson(i, ((JsonValue[]) this.vectors[i])[record]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Column has an unexpected type: " + columns.get(i).getType());
+                }
+            }
+            builder.addRecord();
+        }
+    }
+
+    static boolean isNullInBitmap(final long[] nullBitmap, final int record) {
+        return (nullBitmap[record >>> 6] & (1L << record)) != 0;
+    }
+
+    // Resolves the kinds of the columns once, not to dispatch on their types for every value.
+    private static Type.Kind[] kindsOf(final List<Column> columns) {
+        final Type.Kind[] kinds = new Type.Kind[columns.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = columns.get(i).getKind();
+            if (kinds[i] == null) {
+                throw new IllegalArgumentException("Column has an unexpected type: " + columns.get(i).getType());
+            }
+        }
+        return kinds;
+    }
+
+    private static Object newVector(final Column column, final int recordCount) {
+        final Type.Kind kind = column.getKind();
+        if (kind == null) {
+            throw new IllegalArgumentException("Column has an unexpected type: " + column.getType());
+        }
+        switch (kind) {
+            case BOOLEAN:
+                return new boolean[recordCount];
+            case LONG:
+                return new long[recordCount];
+            case DOUBLE:
+                return new double[recordCount];
+            case STRING:
+                return new String[recordCount];
+            case TIMESTAMP:
+                return new Instant[recordCount];
+            case JSON:
+                return new JsonValue[recordCount];
+            default:
+                throw new IllegalArgumentException("Column has an unexpected type: " + column.getType());
+        }
+    }
+
+    private static long[] newNullBitmap(final int recordCount) {
+        return new long[(recordCount + 63) >>> 6];
+    }
+
+    private final Schema schema;
+    private final int recordCount;
+    private final Object[] vectors;
+    private final long[][] nullBitmaps;
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi;
+
+import java.util.List;
+import org.embulk.spi.type.Type;
+
+/**
+ * A {@link ColumnVisitor} bound to the columns of a {@link Schema} in advance.
+ *
+ * <p>It resolves the kind of type of each column once when it is compiled by
+ * {@link Schema#compileVisitor(ColumnVisitor)}, so that visiting columns per record would only switch over a flat array
+ * of the kinds, without walking the list of columns nor resolving their types again. It is useful for plugins visiting all the columns for every record.
+ *
+ * <pre>{@code
+ * final CompiledColumnVisitor compiled = schema.compileVisitor(visitor);
+ * while (pageReader.nextRecord()) {
+ *     compiled.visitColumns();
+ * }
+ * }</pre>
+ *
+ * @since 0.11
+ */
+public final class CompiledColumnVisitor {
+    private CompiledColumnVisitor(final Column[] columns, final Type.Kind[] kinds, final ColumnVisitor visitor) {
+        this.columns = columns;
+        this.kinds = kinds;
+        this.visitor = visitor;
+    }
+
+    static CompiledColumnVisitor compile(final List<Column> columns, final ColumnVisitor visitor) {
+        if (visitor == null) {
+            throw new NullPointerException("visitor is null.");
+        }
+        final Column[] columnArray = columns.toArray(new Column[0]);
+        final Type.Kind[] kinds = new Type.Kind[columnArray.length];
+        for (int i = 0; i < columnArray.length; i++) {
+            kinds[i] = columnArray[i].getKind();
+            if (kinds[i] == null) {
+                throw new IllegalArgumentException("Column has an unexpected type: " + columnArray[i].getType());
+            }
+        }
+        return new CompiledColumnVisitor(columnArray, kinds, visitor);
+    }
+
+    /**
+     * Visits all the columns in the order of the columns.
+     *
+     * @since 0.11
+     */
+    public void visitColumns() {
+        for (int i = 0; i < this.columns.length; i++) {
+            this.visit(i);
+        }
+    }
+
+    /**
+     * Visits the column at the specified index.
+     *
+     * @param columnIndex  the index of the column
+     * @throws IndexOutOfBoundsException  if the index is out of range
+     *
+     * @since 0.11
+     */
+    public void visitColumn(final int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= this.columns.length) {
+            throw new IndexOutOfBoundsException("Column index out of range: " + columnIndex);
+        }
+        this.visit(columnIndex);
+    }
+
+    private void visit(final int i) {
+        final Column column = this.columns[i];
+        switch (this.kinds[i]) {
+            case BOOLEAN:
+                this.visitor.booleanColumn(column);
+                break;
+            case LONG:
+                this.visitor.longColumn(column);
+                break;
+            case DOUBLE:
+                this.visitor.doubleColumn(column);
+                break;
+            case STRING:
+                this.visitor.stringColumn(column);
+                break;
+            case TIMESTAMP:
+                this.visitor.timestampColumn(column);
+                break;
+            case JSON:
+                this.visitor.jsonColumn(column);
+                break;
+            default:
+                throw new IllegalArgumentException("Column has an unexpected type: " + column.getType());
+        }
+    }
+
+    private final Column[] columns;
+    private final Type.Kind[] kinds;
+    private final ColumnVisitor visitor;
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Buffer} backed by a {@link java.nio.ByteBuffer}, typically a direct (off-heap) one.
+ *
+ * <p>A direct {@link NioBuffer} keeps its content out of the Java heap. It can be passed to {@link java.nio.channels}
+ * through {@link #nioBuffer()} or {@link #asByteBuffer()} without copying the content into a Java {@code byte} array.
+ *
+ * <p>{@link #array()} is supported only when the {@link NioBuffer} is backed by a heap {@link java.nio.ByteBuffer}.
+ * Code that copies from or into an arbitrary {@link Buffer} should use {@code getBytes} and {@code setBytes}
+ * instead of accessing {@link #array()} directly.
+ *
+ * <p>{@link NioBuffer} is reference-counted. It starts with the reference count {@code 1}. {@link #retain()},
+ * {@link #slice(int, int)}, and {@link #duplicate()} increment the reference count shared among the {@link NioBuffer} and
+ * the derived {@link NioBuffer}s, and {@link #release()} decrements it. The content must not be accessed after the
+ * reference count reaches {@code 0}.
+ *
+ * @since 0.11
+ */
+public final class NioBuffer extends Buffer {
+    private NioBuffer(final ByteBuffer storage, final ReferenceCount referenceCount) {
+        super();
+        this.view = storage.duplicate();
+        this.referenceCount = referenceCount;
+        this.offset = 0;
+        this.filled = 0;
+        this.capacity = storage.capacity();
+    }
+
+    /**
+     * Allocates a new direct {@link NioBuffer}.
+     *
+     * @param capacity  the capacity of the {@link NioBuffer} in bytes
+     * @return the new direct {@link NioBuffer}
+     * @throws IllegalArgumentException  if the capacity is negative
+     *
+     * @since 0.11
+     */
+    public static NioBuffer allocateDirect(final int capacity) {
+        return new NioBuffer(ByteBuffer.allocateDirect(capacity), new ReferenceCount(null));
+    }
+
+    /**
+     * Creates a new {@link NioBuffer} on the entire {@link java.nio.ByteBuffer} with a deallocator.
+     *
+     * <p>The deallocator runs once when the reference count reaches {@code 0}. It is for {@link BufferAllocator}s that
+     * recycle the {@link java.nio.ByteBuffer}.
+     */
+    static NioBuffer of(final ByteBuffer storage, final Runnable deallocator) {
+        return new NioBuffer(storage, new ReferenceCount(deallocator));
+    }
+
+    /**
+     * Creates a new {@link NioBuffer} wrapping the remaining content of the specified {@link java.nio.ByteBuffer}.
+     *
+     * <p>The created {@link NioBuffer} shares the content with the {@link java.nio.ByteBuffer}. Its capacity and its limit
+     * are the number of remaining bytes in the {@link java.nio.ByteBuffer}.
+     *
+     * @param byteBuffer  the {@link java.nio.ByteBuffer} to wrap, not null
+     * @return the new {@link NioBuffer}
+     * @throws IllegalArgumentException  if the {@link java.nio.ByteBuffer} is read-only
+     *
+     * @since 0.11
+     */
+    public static NioBuffer wrap(final ByteBuffer byteBuffer) {
+        if (byteBuffer == null) {
+            throw new NullPointerException("byteBuffer is null.");
+        }
+        if (byteBuffer.isReadOnly()) {
+            throw new IllegalArgumentException("NioBuffer cannot wrap a read-only ByteBuffer.");
+        }
+        final NioBuffer buffer = new NioBuffer(byteBuffer.slice(), new ReferenceCount(null));
+        buffer.limit(buffer.capacity);
+        return buffer;
+    }
+
+    /**
+     * Returns the internal {@code byte} array of this {@link NioBuffer} if it is backed by a heap {@link java.nio.ByteBuffer}.
+     *
+     * @deprecated Accessing the internal {@code byte} array is not safe.
+     * @return the internal {@code byte} array
+     * @throws UnsupportedOperationException  if this {@link NioBuffer} is not backed by an accessible {@code byte} array
+     *
+     * @since 0.11
+     */
+    @Deprecated  // Not for removal, but deprecated.
+    @Override
+    public byte[] array() {
+        if (!this.view.hasArray() || this.view.arrayOffset() != 0) {
+            throw new UnsupportedOperationException("NioBuffer is not backed by an accessible byte array.");
+        }
+        return this.view.array();
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Buffer offset(final int offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public int limit() {
+        return this.filled - this.offset;
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Buffer limit(final int limit) {
+        if (this.capacity < limit) {
+            throw new IllegalStateException("capacity (" + this.capacity + ") < limit (" + limit + ")");
+        }
+        this.filled = this.offset + limit;
+        return this;
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns {@code true} if this {@link NioBuffer} is backed by a direct (off-heap) {@link java.nio.ByteBuffer}.
+     *
+     * @return {@code true} if this {@link NioBuffer} is direct
+     *
+     * @since 0.11
+     */
+    @Override
+    public boolean isDirect() {
+        return this.view.isDirect();
+    }
+
+    /**
+     * Returns a read-only {@link java.nio.ByteBuffer} view of this {@link NioBuffer} from index {@code 0} until its limit.
+     *
+     * @return a read-only {@link java.nio.ByteBuffer} view of this {@link NioBuffer}
+     *
+     * @since 0.11
+     */
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return this.nioBuffer().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a new {@link java.nio.ByteBuffer} sharing the content from index {@code 0} until the limit of this {@link NioBuffer}.
+     *
+     * <p>Changes in the content are visible in both. The position, the limit, and the mark of the returned
+     * {@link java.nio.ByteBuffer} are independent from this {@link NioBuffer}.
+     *
+     * @return a new {@link java.nio.ByteBuffer} sharing the content
+     *
+     * @since 0.11
+     */
+    public ByteBuffer nioBuffer() {
+        return this.nioBuffer(0, this.limit());
+    }
+
+    /**
+     * Returns a new {@link java.nio.ByteBuffer} sharing the content from {@code index} for {@code length} bytes.
+     *
+     * <p>The returned {@link java.nio.ByteBuffer} is positioned at {@code 0}, and limited at {@code length}. It is useful
+     * to read bytes from a {@link java.nio.channels.ReadableByteChannel} directly into this {@link NioBuffer}.
+     *
+     * @param index  starting position in this {@link NioBuffer}
+     * @param length  the number of bytes to share
+     * @return a new {@link java.nio.ByteBuffer} sharing the content
+     *
+     * @since 0.11
+     */
+    public ByteBuffer nioBuffer(final int index, final int length) {
+        this.ensureAccessible();
+        final ByteBuffer duplicated = this.view.duplicate();
+        duplicated.limit(this.offset + index + length);
+        duplicated.position(this.offset + index);
+        return duplicated.slice();
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public void setBytes(final int index, final byte[] source, final int sourceIndex, final int length) {
+        this.ensureAccessible();
+        this.view.clear();
+        this.view.position(this.offset + index);
+        this.view.put(source, sourceIndex, length);
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public void setBytes(final int index, final Buffer source, final int sourceIndex, final int length) {
+        if (source instanceof NioBuffer) {
+            this.setBytes(index, ((NioBuffer) source).nioBuffer(sourceIndex, length));
+            return;
+        }
+        source.getBytes(sourceIndex, this.nioBuffer(index, length));
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public void setBytes(final int index, final ByteBuffer source) {
+        this.ensureAccessible();
+        this.view.clear();
+        this.view.position(this.offset + index);
+        this.view.put(source);
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public void getBytes(final int index, final byte[] dest, final int destIndex, final int length) {
+        this.ensureAccessible();
+        this.view.clear();
+        this.view.position(this.offset + index);
+        this.view.get(dest, destIndex, length);
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public void getBytes(final int index, final Buffer dest, final int destIndex, final int length) {
+        dest.setBytes(destIndex, this.nioBuffer(index, length));
+    }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public void getBytes(final int index, final ByteBuffer dest) {
+        dest.put(this.nioBuffer(index, dest.remaining()));
+    }
+
+    /**
+     * Increments the reference count of this {@link NioBuffer}.
+     *
+     * @return this {@link NioBuffer} itself
+     * @throws IllegalStateException  if this {@link NioBuffer} has already been released
+     *
+     * @since 0.11
+     */
+    @Override
+    public NioBuffer retain() {
+        this.referenceCount.retain();
+        return this;
+    }
+
+    /**
+     * Returns a new {@link NioBuffer} sharing the content of this {@link NioBuffer} from {@code index} for {@code length} bytes.
+     *
+     * <p>The returned {@link NioBuffer} starts at offset {@code 0} with the capacity and the limit {@code length}.
+     * It increments the reference count shared with this {@link NioBuffer}. The returned {@link NioBuffer} must be
+     * released independently from this {@link NioBuffer}.
+     *
+     * @param index  starting position in this {@link NioBuffer}
+     * @param length  the number of bytes to share
+     * @return a new {@link NioBuffer} sharing the content
+     * @throws IllegalStateException  if this {@link NioBuffer} has already been released
+     *
+     * @since 0.11
+     */
+    @Override
+    public NioBuffer slice(final int index, final int length) {
+        final NioBuffer sliced = new NioBuffer(this.nioBuffer(index, length), this.referenceCount);
+        sliced.limit(length);
+        this.referenceCount.retain();
+        return sliced;
+    }
+
+    /**
+     * Returns a new {@link NioBuffer} sharing the entire content of this {@link NioBuffer}.
+     *
+     * <p>The returned {@link NioBuffer} has the same offset, limit, and capacity with this {@link NioBuffer}, but they are
+     * independent from each other. It increments the reference count shared with this {@link NioBuffer}. The returned
+     * {@link NioBuffer} must be released independently from this {@link NioBuffer}.
+     *
+     * @return a new {@link NioBuffer} sharing the content
+     * @throws IllegalStateException  if this {@link NioBuffer} has already been released
+     *
+     * @since 0.11
+     */
+    @Override
+    public NioBuffer duplicate() {
+        this.ensureAccessible();
+        final NioBuffer duplicated = new NioBuffer(this.view, this.referenceCount);
+        duplicated.offset = this.offset;
+        duplicated.filled = this.filled;
+        this.referenceCount.retain();
+        return duplicated;
+    }
+
+    /**
+     * Returns the current reference count of this {@link NioBuffer}.
+     *
+     * @return the current reference count
+     *
+     * @since 0.11
+     */
+    public int referenceCount() {
+        return this.referenceCount.get();
+    }
+
+    /**
+     * Decrements the reference count of this {@link NioBuffer}.
+     *
+     * <p>When the reference count reaches {@code 0}, the content is no longer accessible from this {@link NioBuffer}, nor
+     * from {@link NioBuffer}s derived from it. The memory of a direct {@link NioBuffer} is freed when it becomes
+     * unreachable, as well as {@link java.nio.ByteBuffer}.
+     *
+     * @throws IllegalStateException  if this {@link NioBuffer} has already been released
+     *
+     * @since 0.11
+     */
+    @Override
+    public void release() {
+        this.referenceCount.release();
+    }
+
+    private void ensureAccessible() {
+        if (this.referenceCount.get() <= 0) {
+            throw new IllegalStateException("NioBuffer has already been released.");
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ReferenceCount extends AtomicInteger {
+        ReferenceCount(final Runnable deallocator) {
+            super(1);
+            this.deallocator = deallocator;
+        }
+
+        void retain() {
+            while (true) {
+                final int current = this.get();
+                if (current <= 0) {
+                    throw new IllegalStateException("NioBuffer has already been released.");
+                }
+                if (this.compareAndSet(current, current + 1)) {
+                    return;
+                }
+            }
+        }
+
+        void release() {
+            while (true) {
+                final int current = this.get();
+                if (current <= 0) {
+                    throw new IllegalStateException("NioBuffer has already been released.");
+                }
+                if (this.compareAndSet(current, current - 1)) {
+                    if (current == 1 && this.deallocator != null) {
+                        this.deallocator.run();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private final Runnable deallocator;
+    }
+
+    // The view spans the entire storage. Its position and limit are reset by every access.
+    private final ByteBuffer view;
+    private final ReferenceCount referenceCount;
+    private final int capacity;
+
+    private int offset;
+    private int filled;
+}
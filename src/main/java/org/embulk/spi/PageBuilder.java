@@ -220,6 +220,26 @@ public class PageBuilder implements AutoCloseable {
         this.delegate.addRecord();
     }
 
+    /**
+     * Adds all the data records in a column-oriented {@link ColumnBatch} at once.
+     *
+     * <p>It is equivalent to setting the values of each record in {@code batch}, and calling {@link #addRecord()} for
+     * the record.
+     *
+     * @param batch  the {@link ColumnBatch} whose {@link Schema} is the same as this {@link PageBuilder}'s
+     * @throws IllegalArgumentException  if the {@link Schema} of {@code batch} is different
+     *
+     * @since 0.11
+     */
+    public void addColumnBatch(final ColumnBatch batch) {
+        if (this.delegate != null) {
+            this.delegate.addColumnBatch(batch);
+            return;
+        }
+        // Implementations that do not override this method fall back to the row-oriented setters.
+        batch.writeTo(this);
+    }
+
     /**
      * @since 0.4.0
      */
@@ -16,6 +16,8 @@
 
 package org.embulk.spi;
 
+import java.util.List;
+
 /**
  * Represents a sequence of {@link Page}s as output, passed from an Input Plugin via Filter Plugins to an Output Plugin.
  *
@@ -27,6 +29,22 @@ public interface PageOutput extends AutoCloseable {
      */
     void add(Page page);
 
+    /**
+     * Adds multiple {@link Page}s at once.
+     *
+     * <p>Output Plugins that commit in batches, such as bulk loaders, can override it to receive a group of {@link Page}s
+     * in one call. It calls {@link #add(Page)} for each {@link Page} in order by default.
+     *
+     * @param pages  the {@link Page}s to add in order
+     *
+     * @since 0.11
+     */
+    default void addAll(final List<Page> pages) {
+        for (final Page page : pages) {
+            this.add(page);
+        }
+    }
+
     /**
      * @since 0.4.0
      */
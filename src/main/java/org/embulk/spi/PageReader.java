@@ -20,7 +20,9 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.time.Instant;
+import java.util.List;
 import org.embulk.spi.json.JsonValue;
+import org.embulk.spi.type.Type;
 import org.msgpack.value.Value;
 
 /**
@@ -240,6 +242,45 @@ public class PageReader implements AutoCloseable {
         return this.delegate.nextRecord();
     }
 
+    /**
+     * Reads all the data records in {@code page} at once into a column-oriented {@link ColumnBatch}.
+     *
+     * <p>It sets {@code page} to this {@link PageReader}, and moves the cursor to the end of {@code page}. It is equivalent
+     * to calling {@link #setPage(Page)}, and then {@link #nextRecord()} until it returns {@code false}.
+     *
+     * @param page  the {@link Page} to read
+     * @return the {@link ColumnBatch} containing all the data records in {@code page}
+     *
+     * @since 0.11
+     */
+    public ColumnBatch readColumnBatch(final Page page) {
+        if (this.delegate != null) {
+            return this.delegate.readColumnBatch(page);
+        }
+        // Implementations that do not override this method fall back to the row-oriented cursor.
+        return ColumnBatch.readFrom(this, page);
+    }
+
+    /**
+     * Reads the remaining data records in the current {@link Page}, and passes their values to {@code handler}.
+     *
+     * <p>It drives {@link #nextRecord()} until it returns {@code false} in a single loop over all the records and the
+     * columns, instead of dispatching a {@link ColumnVisitor} and calling a getter per value.
+     *
+     * @param handler  the {@link RecordHandler} to receive the values, not null
+     * @return the number of the records read
+     * @throws IllegalArgumentException  if a column has an unexpected type
+     *
+     * @since 0.11
+     */
+    public int forEachRecord(final RecordHandler handler) {
+        if (this.delegate != null) {
+            return this.delegate.forEachRecord(handler);
+        }
+        // Implementations that do not override this method fall back to the getters.
+        return this.forEachRecordWithGetters(handler);
+    }
+
     /**
      * @since 0.4.0
      */
@@ -248,6 +289,56 @@ public class PageReader implements AutoCloseable {
         this.delegate.close();
     }
 
+    private int forEachRecordWithGetters(final RecordHandler handler) {
+        if (handler == null) {
+            throw new NullPointerException("handler is null.");
+        }
+        final List<Column> columns = this.getSchema().getColumns();
+        final Type.Kind[] kinds = new Type.Kind[columns.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = columns.get(i).getKind();
+            if (kinds[i] == null) {
+                throw new IllegalArgumentException("Column has an unexpected type: " + columns.get(i).getType());
+            }
+        }
+
+        int records = 0;
+        while (this.nextRecord()) {
+            handler.onRecordStart();
+            for (int i = 0; i < kinds.length; i++) {
+                if (this.isNull(i)) {
+                    handler.onNull(i);
+                    continue;
+                }
+                switch (kinds[i]) {
+                    case BOOLEAN:
+                        handler.onBoolean(i, this.getBoolean(i));
+                        break;
+                    case LONG:
+                        handler.onLong(i, this.getLong(i));
+                        break;
+                    case DOUBLE:
+                        handler.onDouble(i, this.getDouble(i));
+                        break;
+                    case STRING:
+                        handler.onString(i, this.getString(i));
+                        break;
+                    case TIMESTAMP:
+                        handler.onTimestamp(i, this.getTimestampInstant(i));
+                        break;
+                    case JSON:
+                        handler.onJson(i, this.getJsonValue(i));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Column has an unexpected type: " + columns.get(i).getType());
+                }
+            }
+            handler.onRecordEnd();
+            records++;
+        }
+        return records;
+    }
+
     private static PageReader createImplInstance(final Schema schema) {
         try {
             return Holder.CONSTRUCTOR.newInstance(schema);
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link PageOutput} that passes {@link Page}s to another {@link PageOutput} in a separate thread.
+ *
+ * <p>{@link #add(Page)} puts a {@link Page}, and {@link #addAll(List)} puts a group of {@link Page}s, into a bounded
+ * queue, and returns without waiting for the downstream {@link PageOutput} to process it. It blocks only when the queue
+ * is full. It lets the caller, typically an Input Plugin parsing its input, overlap with the downstream, typically an
+ * Output Plugin writing to the network.
+ *
+ * <p>The thread is started from the thread calling {@link #add(Page)} for the first time, so that it inherits the
+ * {@link ExecSession} of the task for {@link Exec}.
+ *
+ * <p>An exception thrown from the downstream {@link PageOutput} is rethrown from the next call of {@link #add(Page)} or
+ * {@link #finish()}. {@link Page}s queued after the exception are released without being passed to the downstream.
+ * {@link #finish()} waits until all the queued {@link Page}s are passed to the downstream, and then finishes the
+ * downstream. {@link #close()} discards the queued {@link Page}s, stops the thread, and then closes the downstream.
+ *
+ * <p>It is not thread-safe. {@link #add(Page)}, {@link #finish()}, and {@link #close()} must be called from the same thread.
+ *
+ * @since 0.11
+ */
+public final class PipelinedPageOutput implements PageOutput {
+    private PipelinedPageOutput(final PageOutput downstream, final int depth) {
+        this.downstream = downstream;
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.worker = null;
+        this.failure = null;
+        this.closing = false;
+    }
+
+    /**
+     * Creates a {@link PipelinedPageOutput} passing {@link Page}s to {@code downstream}.
+     *
+     * @param downstream  the {@link PageOutput} to pass {@link Page}s to
+     * @param depth  the maximum number of {@link Page}s queued and not passed to the downstream yet
+     * @return the new {@link PipelinedPageOutput}
+     * @throws IllegalArgumentException  if {@code depth} is not positive
+     *
+     * @since 0.11
+     */
+    public static PipelinedPageOutput of(final PageOutput downstream, final int depth) {
+        if (downstream == null) {
+            throw new NullPointerException("downstream is null.");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive.");
+        }
+        return new PipelinedPageOutput(downstream, depth);
+    }
+
+    /**
+     * Queues a {@link Page} to be passed to the downstream {@link PageOutput}.
+     *
+     * <p>It blocks while the queue is full.
+     *
+     * @param page  the {@link Page} to pass
+     * @throws IllegalStateException  if it has already been finished or closed
+     *
+     * @since 0.11
+     */
+    @Override
+    public void add(final Page page) {
+        this.enqueue(page, page::release);
+    }
+
+    /**
+     * Queues multiple {@link Page}s to be passed to the downstream {@link PageOutput} at once by {@link PageOutput#addAll(List)}.
+     *
+     * <p>The {@link Page}s occupy one entry in the queue. It blocks while the queue is full.
+     *
+     * @param pages  the {@link Page}s to pass in order
+     * @throws IllegalStateException  if it has already been finished or closed
+     *
+     * @since 0.11
+     */
+    @Override
+    public void addAll(final List<Page> pages) {
+        final List<Page> copied = new ArrayList<>(pages);
+        this.enqueue(copied, () -> releaseQueued(copied));
+    }
+
+    /**
+     * Waits until all the queued {@link Page}s are passed to the downstream {@link PageOutput}, and finishes the downstream.
+     *
+     * @since 0.11
+     */
+    @Override
+    public void finish() {
+        if (this.worker == null) {
+            this.downstream.finish();
+            return;
+        }
+        this.enqueue(FINISH, null);
+        joinUninterruptibly(this.worker);
+        this.rethrowFailure();
+    }
+
+    /**
+     * Discards the queued {@link Page}s, stops the thread, and closes the downstream {@link PageOutput}.
+     *
+     * @since 0.11
+     */
+    @Override
+    public void close() {
+        try {
+            if (this.worker != null && this.worker.isAlive()) {
+                this.closing = true;
+                Object discarded;
+                while ((discarded = this.queue.poll()) != null) {
+                    releaseQueued(discarded);
+                }
+                putUninterruptibly(this.queue, CLOSE);
+                joinUninterruptibly(this.worker);
+            }
+        } finally {
+            this.downstream.close();
+        }
+    }
+
+    private void enqueue(final Object item, final Runnable discard) {
+        this.rethrowFailureWith(discard);
+        if (this.worker == null) {
+            this.worker = new Thread(this::run, "embulk-pipelined-page-output-" + THREAD_NUMBER.incrementAndGet());
+            this.worker.setDaemon(true);
+            this.worker.start();
+        } else if (!this.worker.isAlive()) {
+            if (discard != null) {
+                discard.run();
+            }
+            throw new IllegalStateException("PipelinedPageOutput has already been finished or closed.");
+        }
+        try {
+            this.queue.put(item);
+        } catch (final InterruptedException ex) {
+            if (discard != null) {
+                discard.run();
+            }
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the downstream PageOutput.", ex);
+        }
+        this.rethrowFailure();
+    }
+
+    private void run() {
+        while (true) {
+            final Object item;
+            try {
+                item = this.queue.take();
+            } catch (final InterruptedException ex) {
+                // Nobody interrupts the worker thread. Just retry if it ever happens.
+                continue;
+            }
+
+            if (item == CLOSE) {
+                return;
+            }
+            if (this.failure != null || this.closing) {
+                if (item == FINISH) {
+                    return;
+                }
+                releaseQueued(item);
+                continue;
+            }
+
+            try {
+                if (item == FINISH) {
+                    this.downstream.finish();
+                    return;
+                }
+                if (item instanceof Page) {
+                    this.downstream.add((Page) item);
+                } else {
+                    this.downstream.addAll(castToPages(item));
+                }
+            } catch (final RuntimeException | Error ex) {
+                this.failure = ex;
+                if (item == FINISH) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void rethrowFailure() {
+        this.rethrowFailureWith(null);
+    }
+
+    private void rethrowFailureWith(final Runnable discard) {
+        final Throwable failure = this.failure;
+        if (failure == null) {
+            return;
+        }
+        if (discard != null) {
+            discard.run();
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw (RuntimeException) failure;
+    }
+
+    private static void releaseQueued(final Object item) {
+        if (item instanceof Page) {
+            ((Page) item).release();
+        } else if (item instanceof List) {
+            for (final Page page : castToPages(item)) {
+                page.release();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Page> castToPages(final Object item) {
+        return (List<Page>) item;
+    }
+
+    private static void putUninterruptibly(final BlockingQueue<Object> queue, final Object item) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    queue.put(item);
+                    return;
+                } catch (final InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void joinUninterruptibly(final Thread thread) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    thread.join();
+                    return;
+                } catch (final InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final Object FINISH = new Object();
+    private static final Object CLOSE = new Object();
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(0);
+
+    private final PageOutput downstream;
+    private final BlockingQueue<Object> queue;
+
+    private Thread worker;
+
+    private volatile Throwable failure;
+    private volatile boolean closing;
+}
@@ -0,0 +1,790 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BufferAllocator} that recycles the memory of released {@link Buffer}s.
+ *
+ * <p>It rounds up a requested capacity to a size class, a power of two between the minimum and the maximum size classes.
+ * A released {@link Buffer} returns its memory to a small cache local to the releasing thread, and then to the arena
+ * of its size class shared among threads when the cache is full. A request larger than the maximum size class is not
+ * pooled.
+ *
+ * <p>It allocates {@link NioBuffer}s. They are backed by heap {@link java.nio.ByteBuffer}s by default, so that
+ * {@link Buffer#array()} is still available for compatibility. {@link Builder#setDirect(boolean)} makes them direct.
+ *
+ * <p>A {@link Buffer} allocated from it must be released exactly once by {@link Buffer#release()}, and it must not be
+ * accessed after that, including {@link java.nio.ByteBuffer}s obtained from {@link NioBuffer#nioBuffer()}. A {@link Buffer}
+ * that is not released is just garbage-collected without returning to the pool.
+ *
+ * <p>It tracks its {@link Buffer}s for {@link #getMetrics()}. With {@link Builder#setLeakDetectionSamplingInterval(int)},
+ * it also records the allocation sites of sampled {@link Buffer}s, and logs them when the {@link Buffer}s are
+ * garbage-collected without being released.
+ *
+ * <p>With {@link Builder#setMemoryBudgetBytes(long)}, it limits the total capacity of {@link Buffer}s allocated and not
+ * released yet. {@link #allocate(int)} blocks, and {@link #tryAllocate(int, long, TimeUnit)} waits, until enough
+ * {@link Buffer}s are released to fit in the budget. It gives backpressure to a fast producer of {@link Page}s when
+ * their consumer is slow, since the {@link Buffer} of a {@link Page} is released when the consumer is done with it.
+ *
+ * @since 0.11
+ */
+public final class PooledBufferAllocator implements BufferAllocator {
+    private PooledBufferAllocator(
+            final int defaultBufferSize,
+            final int minimumSizeClassShift,
+            final int maximumSizeClassShift,
+            final int threadLocalCacheSize,
+            final long maximumArenaBytesPerSizeClass,
+            final boolean direct,
+            final int leakDetectionSamplingInterval,
+            final long memoryBudgetBytes) {
+        this.defaultBufferSize = defaultBufferSize;
+        this.minimumSizeClassShift = minimumSizeClassShift;
+        this.maximumSizeClassShift = maximumSizeClassShift;
+        this.threadLocalCacheSize = threadLocalCacheSize;
+        this.direct = direct;
+        this.leakDetectionSamplingInterval = leakDetectionSamplingInterval;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+
+        this.arenas = new Arena[maximumSizeClassShift - minimumSizeClassShift + 1];
+        for (int i = 0; i < this.arenas.length; i++) {
+            final int size = 1 << (minimumSizeClassShift + i);
+            this.arenas[i] = new Arena(size, (int) Math.min(Integer.MAX_VALUE, maximumArenaBytesPerSizeClass / size));
+        }
+        this.threadLocalCaches = ThreadLocal.withInitial(() -> new ThreadLocalCache(this.arenas.length));
+
+        this.allocationCount = new LongAdder();
+        this.reuseCount = new LongAdder();
+        this.releaseCount = new LongAdder();
+        this.liveBytes = new AtomicLong(0);
+        this.peakLiveBytes = new AtomicLong(0);
+        this.leakCount = new LongAdder();
+        this.leakTrackers = ConcurrentHashMap.newKeySet();
+        this.leakQueue = new ReferenceQueue<>();
+        this.startNanos = System.nanoTime();
+
+        this.budgetLock = new ReentrantLock();
+        this.budgetReleased = this.budgetLock.newCondition();
+        this.budgetUsedBytes = 0;
+    }
+
+    /**
+     * Creates a new builder of {@link PooledBufferAllocator}.
+     *
+     * @return the new builder
+     *
+     * @since 0.11
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds {@link PooledBufferAllocator}.
+     *
+     * @since 0.11
+     */
+    public static final class Builder {
+        private Builder() {
+            this.defaultBufferSize = 32 * 1024;
+            this.minimumSizeClass = 4 * 1024;
+            this.maximumSizeClass = 1024 * 1024;
+            this.threadLocalCacheSize = 4;
+            this.maximumArenaBytesPerSizeClass = 16L * 1024 * 1024;
+            this.direct = false;
+            this.leakDetectionSamplingInterval = 0;
+            this.memoryBudgetBytes = 0;
+        }
+
+        /**
+         * Sets the size of a {@link Buffer} allocated by {@link PooledBufferAllocator#allocate()}, {@code 32768} by default.
+         *
+         * @param defaultBufferSize  the default size in bytes
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setDefaultBufferSize(final int defaultBufferSize) {
+            if (defaultBufferSize <= 0) {
+                throw new IllegalArgumentException("defaultBufferSize must be positive.");
+            }
+            this.defaultBufferSize = defaultBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the minimum size class, {@code 4096} by default. It is rounded up to a power of two.
+         *
+         * @param minimumSizeClass  the minimum size class in bytes
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setMinimumSizeClass(final int minimumSizeClass) {
+            if (minimumSizeClass <= 0 || minimumSizeClass > MAXIMUM_SIZE_CLASS_LIMIT) {
+                throw new IllegalArgumentException("minimumSizeClass must be between 1 and " + MAXIMUM_SIZE_CLASS_LIMIT + ".");
+            }
+            this.minimumSizeClass = minimumSizeClass;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size class, {@code 1048576} by default. It is rounded up to a power of two.
+         *
+         * <p>A {@link Buffer} larger than the maximum size class is allocated without pooling.
+         *
+         * @param maximumSizeClass  the maximum size class in bytes
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setMaximumSizeClass(final int maximumSizeClass) {
+            if (maximumSizeClass <= 0 || maximumSizeClass > MAXIMUM_SIZE_CLASS_LIMIT) {
+                throw new IllegalArgumentException("maximumSizeClass must be between 1 and " + MAXIMUM_SIZE_CLASS_LIMIT + ".");
+            }
+            this.maximumSizeClass = maximumSizeClass;
+            return this;
+        }
+
+        /**
+         * Sets the number of released {@link Buffer}s cached per thread per size class, {@code 4} by default.
+         *
+         * @param threadLocalCacheSize  the number of {@link Buffer}s, or {@code 0} to disable thread-local caches
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setThreadLocalCacheSize(final int threadLocalCacheSize) {
+            if (threadLocalCacheSize < 0) {
+                throw new IllegalArgumentException("threadLocalCacheSize must not be negative.");
+            }
+            this.threadLocalCacheSize = threadLocalCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum bytes kept in the shared arena per size class, {@code 16777216} by default.
+         *
+         * @param maximumArenaBytesPerSizeClass  the maximum bytes
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setMaximumArenaBytesPerSizeClass(final long maximumArenaBytesPerSizeClass) {
+            if (maximumArenaBytesPerSizeClass < 0) {
+                throw new IllegalArgumentException("maximumArenaBytesPerSizeClass must not be negative.");
+            }
+            this.maximumArenaBytesPerSizeClass = maximumArenaBytesPerSizeClass;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link Buffer}s are direct (off-heap), {@code false} by default.
+         *
+         * @param direct  {@code true} to allocate direct {@link Buffer}s
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setDirect(final boolean direct) {
+            this.direct = direct;
+            return this;
+        }
+
+        /**
+         * Sets the interval to sample {@link Buffer}s for leak detection, {@code 0} (disabled) by default.
+         *
+         * <p>One in {@code leakDetectionSamplingInterval} {@link Buffer}s on average records its allocation site. Recording
+         * the allocation site is costly. {@code 1} samples all the {@link Buffer}s, which is only for debugging.
+         *
+         * @param leakDetectionSamplingInterval  the sampling interval, or {@code 0} to disable leak detection
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setLeakDetectionSamplingInterval(final int leakDetectionSamplingInterval) {
+            if (leakDetectionSamplingInterval < 0) {
+                throw new IllegalArgumentException("leakDetectionSamplingInterval must not be negative.");
+            }
+            this.leakDetectionSamplingInterval = leakDetectionSamplingInterval;
+            return this;
+        }
+
+        /**
+         * Sets the memory budget in bytes, {@code 0} (unlimited) by default.
+         *
+         * <p>The total capacity of {@link Buffer}s allocated and not released yet is limited to the budget. A single
+         * {@link Buffer} larger than the budget is still allocated when no other {@link Buffer} is outstanding.
+         *
+         * <p>With a budget, every {@link Buffer} is tracked so that a {@link Buffer} garbage-collected without being released
+         * returns its capacity to the budget as a leak, even if it is not sampled by
+         * {@link #setLeakDetectionSamplingInterval(int)}. Its allocation site is recorded only if it is sampled.
+         *
+         * @param memoryBudgetBytes  the memory budget in bytes, or {@code 0} for unlimited
+         * @return this builder itself
+         *
+         * @since 0.11
+         */
+        public Builder setMemoryBudgetBytes(final long memoryBudgetBytes) {
+            if (memoryBudgetBytes < 0) {
+                throw new IllegalArgumentException("memoryBudgetBytes must not be negative.");
+            }
+            this.memoryBudgetBytes = memoryBudgetBytes;
+            return this;
+        }
+
+        /**
+         * Builds {@link PooledBufferAllocator}.
+         *
+         * @return the new {@link PooledBufferAllocator}
+         * @throws IllegalArgumentException  if the minimum size class is larger than the maximum size class
+         *
+         * @since 0.11
+         */
+        public PooledBufferAllocator build() {
+            final int minimumShift = ceilingLog2(this.minimumSizeClass);
+            final int maximumShift = ceilingLog2(this.maximumSizeClass);
+            if (minimumShift > maximumShift) {
+                throw new IllegalArgumentException("minimumSizeClass must not be larger than maximumSizeClass.");
+            }
+            return new PooledBufferAllocator(
+                    this.defaultBufferSize,
+                    minimumShift,
+                    maximumShift,
+                    this.threadLocalCacheSize,
+                    this.maximumArenaBytesPerSizeClass,
+                    this.direct,
+                    this.leakDetectionSamplingInterval,
+                    this.memoryBudgetBytes);
+        }
+
+        private int defaultBufferSize;
+        private int minimumSizeClass;
+        private int maximumSizeClass;
+        private int threadLocalCacheSize;
+        private long maximumArenaBytesPerSizeClass;
+        private boolean direct;
+        private int leakDetectionSamplingInterval;
+        private long memoryBudgetBytes;
+    }
+
+    /**
+     * A snapshot of statistics of {@link PooledBufferAllocator}.
+     *
+     * @since 0.11
+     */
+    public static final class Stats {
+        private Stats(final long allocationCount, final long reuseCount, final long releaseCount, final long pooledBytes) {
+            this.allocationCount = allocationCount;
+            this.reuseCount = reuseCount;
+            this.releaseCount = releaseCount;
+            this.pooledBytes = pooledBytes;
+        }
+
+        /**
+         * Returns the number of {@link Buffer}s allocated.
+         *
+         * @return the number of {@link Buffer}s allocated
+         *
+         * @since 0.11
+         */
+        public long getAllocationCount() {
+            return this.allocationCount;
+        }
+
+        /**
+         * Returns the number of {@link Buffer}s allocated by reusing memory from the pool.
+         *
+         * @return the number of {@link Buffer}s allocated by reusing memory
+         *
+         * @since 0.11
+         */
+        public long getReuseCount() {
+            return this.reuseCount;
+        }
+
+        /**
+         * Returns the number of {@link Buffer}s released.
+         *
+         * @return the number of {@link Buffer}s released
+         *
+         * @since 0.11
+         */
+        public long getReleaseCount() {
+            return this.releaseCount;
+        }
+
+        /**
+         * Returns the bytes kept in the shared arenas, not including thread-local caches.
+         *
+         * @return the bytes kept in the shared arenas
+         *
+         * @since 0.11
+         */
+        public long getPooledBytes() {
+            return this.pooledBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "PooledBufferAllocator.Stats{allocations=" + this.allocationCount
+                    + ", reuses=" + this.reuseCount
+                    + ", releases=" + this.releaseCount
+                    + ", pooledBytes=" + this.pooledBytes + "}";
+        }
+
+        private final long allocationCount;
+        private final long reuseCount;
+        private final long releaseCount;
+        private final long pooledBytes;
+    }
+
+    /**
+     * Allocates a {@link Buffer} with the default size.
+     *
+     * @return {@link Buffer} allocated
+     *
+     * @since 0.11
+     */
+    @Override
+    public Buffer allocate() {
+        return this.allocate(this.defaultBufferSize);
+    }
+
+    /**
+     * Allocates a {@link Buffer} with the size of {@code minimumCapacity} at least.
+     *
+     * <p>The capacity of the allocated {@link Buffer} is its size class, or exactly {@code minimumCapacity} if it is
+     * larger than the maximum size class.
+     *
+     * <p>It blocks until the {@link Buffer} fits in the memory budget if the budget is configured. The wait is
+     * interruptible. If interrupted, it throws {@link RuntimeException} with the interrupt status of the thread set.
+     *
+     * @param minimumCapacity  the minimum size of the {@link Buffer} allocated
+     * @return {@link Buffer} allocated
+     * @throws RuntimeException  if interrupted while waiting for the memory budget
+     *
+     * @since 0.11
+     */
+    @Override
+    public Buffer allocate(final int minimumCapacity) {
+        final int shift = this.sizeClassShift(minimumCapacity);
+        if (this.memoryBudgetBytes > 0) {
+            try {
+                this.acquireBudget(this.capacityOf(shift, minimumCapacity), Long.MAX_VALUE);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the memory budget.", ex);
+            }
+        }
+        return this.allocateWithinBudget(shift, minimumCapacity);
+    }
+
+    /**
+     * Allocates a {@link Buffer} with the size of {@code minimumCapacity} at least, waiting up to the timeout for the
+     * {@link Buffer} to fit in the memory budget.
+     *
+     * @param minimumCapacity  the minimum size of the {@link Buffer} allocated
+     * @param timeout  the maximum time to wait
+     * @param unit  the time unit of {@code timeout}
+     * @return {@link Buffer} allocated in {@link java.util.Optional}, or an empty {@link java.util.Optional} if timed out
+     * @throws InterruptedException  if interrupted while waiting
+     *
+     * @since 0.11
+     */
+    @Override
+    public Optional<Buffer> tryAllocate(final int minimumCapacity, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final int shift = this.sizeClassShift(minimumCapacity);
+        if (this.memoryBudgetBytes > 0 && !this.acquireBudget(this.capacityOf(shift, minimumCapacity), unit.toNanos(timeout))) {
+            return Optional.empty();
+        }
+        return Optional.of(this.allocateWithinBudget(shift, minimumCapacity));
+    }
+
+    /**
+     * Allocates a direct {@link Buffer} with the size of {@code minimumCapacity} at least.
+     *
+     * <p>It allocates from the pool if this {@link PooledBufferAllocator} is configured to be direct. Otherwise, it
+     * allocates a new {@link NioBuffer} without pooling.
+     *
+     * @param minimumCapacity  the minimum size of the {@link Buffer} allocated
+     * @return direct {@link Buffer} allocated
+     *
+     * @since 0.11
+     */
+    @Override
+    public Buffer allocateDirect(final int minimumCapacity) {
+        if (this.direct) {
+            return this.allocate(minimumCapacity);
+        }
+        return NioBuffer.allocateDirect(minimumCapacity);
+    }
+
+    /**
+     * Returns a snapshot of metrics of {@link Buffer}s allocated by this {@link PooledBufferAllocator}.
+     *
+     * <p>It also logs leaks detected since the last call, if leak detection is enabled.
+     *
+     * @return the snapshot of metrics in {@link java.util.Optional}, always present
+     *
+     * @since 0.11
+     */
+    @Override
+    public Optional<BufferAllocatorMetrics> getMetrics() {
+        if (this.isTracking()) {
+            this.drainLeaks();
+        }
+        return Optional.of(BufferAllocatorMetrics.of(
+                this.allocationCount.sum(),
+                this.releaseCount.sum(),
+                this.liveBytes.get(),
+                this.peakLiveBytes.get(),
+                this.leakCount.sum(),
+                System.nanoTime() - this.startNanos));
+    }
+
+    /**
+     * Returns a snapshot of statistics of this {@link PooledBufferAllocator}.
+     *
+     * @return a snapshot of statistics
+     *
+     * @since 0.11
+     */
+    public Stats getStats() {
+        long pooledBytes = 0;
+        for (final Arena arena : this.arenas) {
+            pooledBytes += (long) arena.size() * arena.sizeClass;
+        }
+        return new Stats(this.allocationCount.sum(), this.reuseCount.sum(), this.releaseCount.sum(), pooledBytes);
+    }
+
+    private Buffer allocateWithinBudget(final int shift, final int minimumCapacity) {
+        try {
+            return this.allocateInternal(shift, minimumCapacity);
+        } catch (final RuntimeException | Error ex) {
+            // The budget acquired is returned if the allocation fails, such as OutOfMemoryError.
+            if (this.memoryBudgetBytes > 0) {
+                this.releaseBudget(this.capacityOf(shift, minimumCapacity));
+            }
+            throw ex;
+        }
+    }
+
+    private Buffer allocateInternal(final int shift, final int minimumCapacity) {
+        if (this.isTracking()) {
+            this.drainLeaks();
+        }
+
+        final int sizeClassIndex;
+        ByteBuffer storage;
+        if (shift > this.maximumSizeClassShift) {
+            sizeClassIndex = UNPOOLED;
+            storage = this.newStorage(minimumCapacity);
+        } else {
+            sizeClassIndex = shift - this.minimumSizeClassShift;
+            storage = this.threadLocalCaches.get().poll(sizeClassIndex);
+            if (storage == null) {
+                storage = this.arenas[sizeClassIndex].poll();
+            }
+            if (storage == null) {
+                storage = this.newStorage(1 << shift);
+            } else {
+                this.reuseCount.increment();
+            }
+        }
+
+        this.allocationCount.increment();
+        final long live = this.liveBytes.addAndGet(storage.capacity());
+        if (live > this.peakLiveBytes.get()) {
+            this.peakLiveBytes.accumulateAndGet(live, Math::max);
+        }
+
+        final Recycler recycler = new Recycler(sizeClassIndex, storage);
+        final boolean sampled = this.leakDetectionSamplingInterval > 0
+                && ThreadLocalRandom.current().nextInt(this.leakDetectionSamplingInterval) == 0;
+        // With a budget, all the Buffers are tracked so that leaked Buffers would return their capacity to the budget.
+        if (sampled || this.memoryBudgetBytes > 0) {
+            recycler.tracker = new LeakTracker(recycler, this.leakQueue, storage.capacity(), sampled);
+            this.leakTrackers.add(recycler.tracker);
+        }
+        return NioBuffer.of(storage, recycler);
+    }
+
+    private int sizeClassShift(final int minimumCapacity) {
+        if (minimumCapacity < 0) {
+            throw new IllegalArgumentException("minimumCapacity must not be negative.");
+        }
+        return Math.max(ceilingLog2(Math.max(minimumCapacity, 1)), this.minimumSizeClassShift);
+    }
+
+    private int capacityOf(final int shift, final int minimumCapacity) {
+        if (shift > this.maximumSizeClassShift) {
+            return minimumCapacity;
+        }
+        return 1 << shift;
+    }
+
+    private boolean acquireBudget(final int capacity, final long timeoutNanos) throws InterruptedException {
+        long remainingNanos = timeoutNanos;
+        this.budgetLock.lockInterruptibly();
+        try {
+            while (!this.fitsInBudget(capacity)) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                // Wakes up periodically to reclaim the budget of leaked Buffers, which nobody else may do while waiting.
+                final long waitNanos = Math.min(remainingNanos, LEAK_POLLING_INTERVAL_NANOS);
+                final long leftNanos = this.budgetReleased.awaitNanos(waitNanos);
+                remainingNanos -= waitNanos - leftNanos;
+                this.drainLeaks();
+            }
+            this.budgetUsedBytes += capacity;
+            return true;
+        } finally {
+            this.budgetLock.unlock();
+        }
+    }
+
+    private boolean fitsInBudget(final int capacity) {
+        // A Buffer larger than the entire budget is allowed when nothing else is outstanding not to block forever.
+        return this.budgetUsedBytes == 0 || this.budgetUsedBytes + capacity <= this.memoryBudgetBytes;
+    }
+
+    private void releaseBudget(final int capacity) {
+        this.budgetLock.lock();
+        try {
+            this.budgetUsedBytes -= capacity;
+            this.budgetReleased.signalAll();
+        } finally {
+            this.budgetLock.unlock();
+        }
+    }
+
+    private ByteBuffer newStorage(final int capacity) {
+        if (this.direct) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        return ByteBuffer.allocate(capacity);
+    }
+
+    private void recycle(final int sizeClassIndex, final ByteBuffer storage) {
+        this.releaseCount.increment();
+        this.liveBytes.addAndGet(-storage.capacity());
+        if (this.memoryBudgetBytes > 0) {
+            this.releaseBudget(storage.capacity());
+        }
+        if (sizeClassIndex == UNPOOLED) {
+            return;
+        }
+        if (this.threadLocalCaches.get().offer(sizeClassIndex, storage, this.threadLocalCacheSize)) {
+            return;
+        }
+        this.arenas[sizeClassIndex].offer(storage);
+    }
+
+    private boolean isTracking() {
+        return this.leakDetectionSamplingInterval > 0 || this.memoryBudgetBytes > 0;
+    }
+
+    private void drainLeaks() {
+        LeakTracker tracker;
+        while ((tracker = (LeakTracker) this.leakQueue.poll()) != null) {
+            if (this.leakTrackers.remove(tracker)) {
+                this.leakCount.increment();
+                // The leaked Buffer is no longer live. It is not released either, but counted as a leak.
+                this.liveBytes.addAndGet(-tracker.capacity);
+                if (this.memoryBudgetBytes > 0) {
+                    this.releaseBudget(tracker.capacity);
+                }
+                if (tracker.allocationSite != null) {
+                    logger.error("Buffer (capacity: {}) was garbage-collected without release(). It was allocated at:",
+                                 tracker.capacity, tracker.allocationSite);
+                } else {
+                    logger.error("Buffer (capacity: {}) was garbage-collected without release().", tracker.capacity);
+                }
+            }
+        }
+    }
+
+    private static int ceilingLog2(final int value) {
+        return 32 - Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    /**
+     * Returns the storage when the reference count of a {@link NioBuffer} reaches {@code 0}.
+     *
+     * <p>It is referenced only from the {@link NioBuffer} and its derived {@link NioBuffer}s, so it becomes phantom
+     * reachable when all of them are garbage-collected.
+     */
+    private final class Recycler implements Runnable {
+        Recycler(final int sizeClassIndex, final ByteBuffer storage) {
+            this.sizeClassIndex = sizeClassIndex;
+            this.storage = storage;
+        }
+
+        @Override
+        public void run() {
+            if (this.tracker != null) {
+                leakTrackers.remove(this.tracker);
+                this.tracker.clear();
+            }
+            recycle(this.sizeClassIndex, this.storage);
+        }
+
+        private final int sizeClassIndex;
+        private final ByteBuffer storage;
+        private LeakTracker tracker;
+    }
+
+    private static final class LeakTracker extends PhantomReference<Recycler> {
+        LeakTracker(final Recycler recycler, final ReferenceQueue<Recycler> queue, final int capacity, final boolean sampled) {
+            super(recycler, queue);
+            this.capacity = capacity;
+            this.allocationSite = sampled ? new Throwable("Buffer allocated") : null;
+        }
+
+        private final int capacity;
+        private final Throwable allocationSite;
+    }
+
+    /**
+     * Released storages of one size class shared among threads.
+     */
+    private static final class Arena {
+        Arena(final int sizeClass, final int maximumSize) {
+            this.sizeClass = sizeClass;
+            this.maximumSize = maximumSize;
+            this.storages = new ConcurrentLinkedQueue<>();
+            this.size = new AtomicInteger(0);
+        }
+
+        ByteBuffer poll() {
+            final ByteBuffer storage = this.storages.poll();
+            if (storage != null) {
+                this.size.decrementAndGet();
+            }
+            return storage;
+        }
+
+        void offer(final ByteBuffer storage) {
+            // The storage is dropped to be garbage-collected if the arena is full.
+            if (this.size.incrementAndGet() > this.maximumSize) {
+                this.size.decrementAndGet();
+                return;
+            }
+            this.storages.offer(storage);
+        }
+
+        int size() {
+            return this.size.get();
+        }
+
+        private final int sizeClass;
+        private final int maximumSize;
+        private final ConcurrentLinkedQueue<ByteBuffer> storages;
+        private final AtomicInteger size;
+    }
+
+    /**
+     * Released storages cached in a thread, accessed only from the thread.
+     */
+    private static final class ThreadLocalCache {
+        @SuppressWarnings("unchecked")
+        ThreadLocalCache(final int numberOfSizeClasses) {
+            this.storages = new ArrayDeque[numberOfSizeClasses];
+        }
+
+        ByteBuffer poll(final int sizeClassIndex) {
+            final ArrayDeque<ByteBuffer> deque = this.storages[sizeClassIndex];
+            if (deque == null) {
+                return null;
+            }
+            return deque.pollLast();
+        }
+
+        boolean offer(final int sizeClassIndex, final ByteBuffer storage, final int maximumSize) {
+            ArrayDeque<ByteBuffer> deque = this.storages[sizeClassIndex];
+            if (deque == null) {
+                if (maximumSize <= 0) {
+                    return false;
+                }
+                deque = new ArrayDeque<>(maximumSize);
+                this.storages[sizeClassIndex] = deque;
+            }
+            if (deque.size() >= maximumSize) {
+                return false;
+            }
+            deque.addLast(storage);
+            return true;
+        }
+
+        private final ArrayDeque<ByteBuffer>[] storages;
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledBufferAllocator.class);
+
+    private static final int MAXIMUM_SIZE_CLASS_LIMIT = 1 << 30;
+
+    private static final int UNPOOLED = -1;
+
+    private static final long LEAK_POLLING_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int defaultBufferSize;
+    private final int minimumSizeClassShift;
+    private final int maximumSizeClassShift;
+    private final int threadLocalCacheSize;
+    private final boolean direct;
+    private final int leakDetectionSamplingInterval;
+
+    private final Arena[] arenas;
+    private final ThreadLocal<ThreadLocalCache> threadLocalCaches;
+
+    private final LongAdder allocationCount;
+    private final LongAdder reuseCount;
+    private final LongAdder releaseCount;
+    private final AtomicLong liveBytes;
+    private final AtomicLong peakLiveBytes;
+
+    private final LongAdder leakCount;
+    private final Set<LeakTracker> leakTrackers;
+    private final ReferenceQueue<Recycler> leakQueue;
+
+    private final long startNanos;
+
+    private final long memoryBudgetBytes;
+    private final ReentrantLock budgetLock;
+    private final Condition budgetReleased;
+    private long budgetUsedBytes;  // Guarded by budgetLock.
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi;
+
+import java.time.Instant;
+import org.embulk.spi.json.JsonValue;
+
+/**
+ * Receives the values of data records read by {@link PageReader#forEachRecord(RecordHandler)}.
+ *
+ * <p>For each record, {@link #onRecordStart()} is called first. Then, one of the callbacks is called for each column in
+ * the order of the columns with the index of the column, and finally {@link #onRecordEnd()} is called. {@link #onNull(int)}
+ * is called instead of the typed callback when the value is {@code null}.
+ *
+ * <p>Primitive values are passed as primitives without boxing.
+ *
+ * @since 0.11
+ */
+public interface RecordHandler {
+    /**
+     * Is called before the values of a record.
+     *
+     * @since 0.11
+     */
+    default void onRecordStart() {
+    }
+
+    /**
+     * Is called after the values of a record.
+     *
+     * @since 0.11
+     */
+    default void onRecordEnd() {
+    }
+
+    /**
+     * Is called with a value of a {@code boolean} column.
+     *
+     * @param columnIndex  the index of the column
+     * @param value  the value
+     *
+     * @since 0.11
+     */
+    void onBoolean(int columnIndex, boolean value);
+
+    /**
+     * Is called with a value of a {@code long} column.
+     *
+     * @param columnIndex  the index of the column
+     * @param value  the value
+     *
+     * @since 0.11
+     */
+    void onLong(int columnIndex, long value);
+
+    /**
+     * Is called with a value of a {@code double} column.
+     *
+     * @param columnIndex  the index of the column
+     * @param value  the value
+     *
+     * @since 0.11
+     */
+    void onDouble(int columnIndex, double value);
+
+    /**
+     * Is called with a value of a {@code string} column.
+     *
+     * @param columnIndex  the index of the column
+     * @param value  the value, not null
+     *
+     * @since 0.11
+     */
+    void onString(int columnIndex, String value);
+
+    /**
+     * Is called with a value of a {@code timestamp} column.
+     *
+     * @param columnIndex  the index of the column
+     * @param value  the value, not null
+     *
+     * @since 0.11
+     */
+    void onTimestamp(int columnIndex, Instant value);
+
+    /**
+     * Is called with a value of a {@code json} column.
+     *
+     * @param columnIndex  the index of the column
+     * @param value  the value, not null
+     *
+     * @since 0.11
+     */
+    void onJson(int columnIndex, JsonValue value);
+
+    /**
+     * Is called when the value of a column is {@code null}.
+     *
+     * @param columnIndex  the index of the column
+     *
+     * @since 0.11
+     */
+    void onNull(int columnIndex);
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the layout of the fixed-size part of a record in a {@link Page} for a {@link Schema}.
+ *
+ * <p>A record in a {@link Page} starts with a header: the 4-byte size of the record, and the null bit set, one bit per
+ * column. The fixed-size values of the columns follow the header in the order of the columns. Variable-length values, such
+ * as strings and JSON values, are stored separately, and their fixed-size parts are references to them.
+ *
+ * <p>It is immutable. Get it from {@link Schema#getRecordLayout()}, which computes it only once per {@link Schema}.
+ *
+ * @since 0.11
+ */
+public final class RecordLayout {
+    private RecordLayout(final int nullBitSetSize, final int[] columnOffsets, final int fixedStorageSize) {
+        this.nullBitSetSize = nullBitSetSize;
+        this.columnOffsets = columnOffsets;
+        this.fixedStorageSize = fixedStorageSize;
+    }
+
+    @SuppressWarnings("deprecation")  // https://github.com/embulk/embulk/issues/1324
+    static RecordLayout of(final List<Column> columns) {
+        final int nullBitSetSize = (columns.size() + 7) / 8;
+        final int[] columnOffsets = new int[columns.size()];
+        int offset = RECORD_SIZE_BYTES + nullBitSetSize;
+        int fixedStorageSize = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            final int size = columns.get(i).getType().getFixedStorageSize();
+            columnOffsets[i] = offset;
+            offset += size;
+            fixedStorageSize += size;
+        }
+        return new RecordLayout(nullBitSetSize, columnOffsets, fixedStorageSize);
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the number of columns
+     *
+     * @since 0.11
+     */
+    public int getColumnCount() {
+        return this.columnOffsets.length;
+    }
+
+    /**
+     * Returns the size of the null bit set in bytes, which is one bit per column rounded up to bytes.
+     *
+     * @return the size of the null bit set in bytes
+     *
+     * @since 0.11
+     */
+    public int getNullBitSetSize() {
+        return this.nullBitSetSize;
+    }
+
+    /**
+     * Returns the size of the record header in bytes, which consists of the 4-byte record size and the null bit set.
+     *
+     * @return the size of the record header in bytes
+     *
+     * @since 0.11
+     */
+    public int getRecordHeaderSize() {
+        return RECORD_SIZE_BYTES + this.nullBitSetSize;
+    }
+
+    /**
+     * Returns the byte offset of the fixed-size value of the column from the beginning of a record.
+     *
+     * @param columnIndex  the index of the column
+     * @return the byte offset of the fixed-size value of the column
+     * @throws IndexOutOfBoundsException  if the index is out of range
+     *
+     * @since 0.11
+     */
+    public int getColumnOffset(final int columnIndex) {
+        return this.columnOffsets[columnIndex];
+    }
+
+    /**
+     * Returns the total size of the fixed-size values of all the columns in bytes, excluding the record header.
+     *
+     * @return the total size of the fixed-size values in bytes
+     *
+     * @since 0.11
+     */
+    public int getFixedStorageSize() {
+        return this.fixedStorageSize;
+    }
+
+    /**
+     * Returns the size of the fixed-size part of a record in bytes, including the record header.
+     *
+     * @return the size of the fixed-size part of a record in bytes
+     *
+     * @since 0.11
+     */
+    public int getFixedRecordSize() {
+        return this.getRecordHeaderSize() + this.fixedStorageSize;
+    }
+
+    @Override
+    public boolean equals(final Object otherObject) {
+        if (this == otherObject) {
+            return true;
+        }
+        if (!(otherObject instanceof RecordLayout)) {
+            return false;
+        }
+        final RecordLayout other = (RecordLayout) otherObject;
+        return this.nullBitSetSize == other.nullBitSetSize
+                && this.fixedStorageSize == other.fixedStorageSize
+                && Arrays.equals(this.columnOffsets, other.columnOffsets);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.nullBitSetSize + this.fixedStorageSize) + Arrays.hashCode(this.columnOffsets);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordLayout{header=" + this.getRecordHeaderSize()
+                + ", offsets=" + Arrays.toString(this.columnOffsets)
+                + ", fixedRecordSize=" + this.getFixedRecordSize() + "}";
+    }
+
+    private static final int RECORD_SIZE_BYTES = 4;
+
+    private final int nullBitSetSize;
+    private final int[] columnOffsets;
+    private final int fixedStorageSize;
+}
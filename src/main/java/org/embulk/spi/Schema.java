@@ -18,8 +18,11 @@ package org.embulk.spi;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import org.embulk.spi.type.Type;
 
 /**
@@ -68,6 +71,8 @@ public class Schema {
      */
     public Schema(final List<Column> columns) {
         this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.columnsByName = buildColumnsByName(this.columns);
+        this.recordLayout = RecordLayout.of(this.columns);
     }
 
     /**
@@ -125,6 +130,21 @@ public class Schema {
         }
     }
 
+    /**
+     * Compiles a {@link ColumnVisitor} into a {@link CompiledColumnVisitor} bound to the columns of this schema.
+     *
+     * <p>The method of the visitor for each column is resolved only once here, instead of every visit.
+     *
+     * @param visitor  the visitor, not null
+     * @return the {@link CompiledColumnVisitor}
+     * @throws IllegalArgumentException  if a column has an unexpected type
+     *
+     * @since 0.11
+     */
+    public CompiledColumnVisitor compileVisitor(final ColumnVisitor visitor) {
+        return CompiledColumnVisitor.compile(this.columns, visitor);
+    }
+
     /**
      * @since 0.4.0
      */
@@ -136,24 +156,45 @@ public class Schema {
      * @since 0.6.14
      */
     public Column lookupColumn(final String name) {
-        for (final Column c : this.columns) {
-            if (c.getName().equals(name)) {
-                return c;
-            }
+        final Column column = this.columnsByName.get(name);
+        if (column == null) {
+            throw new SchemaConfigException(String.format("Column '%s' is not found", name));
         }
-        throw new SchemaConfigException(String.format("Column '%s' is not found", name));
+        return column;
+    }
+
+    /**
+     * Finds a column by its name.
+     *
+     * <p>If more than one column have the same name, the first one is returned, same as {@link #lookupColumn(String)}.
+     *
+     * @param name  the name of the column
+     * @return the column with the name, or {@link Optional#empty()} if not found
+     *
+     * @since 0.11
+     */
+    public Optional<Column> findColumn(final String name) {
+        return Optional.ofNullable(this.columnsByName.get(name));
     }
 
     /**
      * @since 0.4.0
      */
-    @SuppressWarnings("deprecation")  // https://github.com/embulk/embulk/issues/1324
     public int getFixedStorageSize() {
-        int total = 0;
-        for (final Column column : this.columns) {
-            total += column.getType().getFixedStorageSize();
-        }
-        return total;
+        return this.recordLayout.getFixedStorageSize();
+    }
+
+    /**
+     * Returns the layout of the fixed-size part of a record in a {@link Page} for this schema.
+     *
+     * <p>It is computed only once when the schema is created.
+     *
+     * @return the layout of the fixed-size part of a record
+     *
+     * @since 0.11
+     */
+    public RecordLayout getRecordLayout() {
+        return this.recordLayout;
     }
 
     /**
@@ -193,5 +234,18 @@ public class Schema {
         return sbuf.toString();
     }
 
+    private static Map<String, Column> buildColumnsByName(final List<Column> columns) {
+        final HashMap<String, Column> columnsByName = new HashMap<>(Math.max(16, (int) (columns.size() / 0.75f) + 1));
+        for (final Column column : columns) {
+            // The first column wins if names are duplicated.
+            columnsByName.putIfAbsent(column.getName(), column);
+        }
+        return columnsByName;
+    }
+
     private final List<Column> columns;
+
+    private final Map<String, Column> columnsByName;
+
+    private final RecordLayout recordLayout;
 }
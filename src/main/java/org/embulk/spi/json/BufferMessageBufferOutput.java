@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import org.embulk.spi.Buffer;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferOutput;
+
+/**
+ * A {@link MessageBufferOutput} that appends bytes into an Embulk {@link Buffer} after its limit.
+ *
+ * <p>It works with any {@link Buffer} through {@link Buffer#setBytes(int, byte[], int, int)}. The bytes packed by
+ * {@link MessagePacker} are staged in a small scratch buffer, and large payloads are copied directly.
+ *
+ * <p>Each thread keeps one instance together with its {@link MessagePacker}, so that the scratch buffer and the packer
+ * are reused across calls of {@link #pack(JsonValue, Buffer)}. An instance which failed in the middle of packing is
+ * discarded, as its packer may still hold bytes which were not flushed.
+ */
+final class BufferMessageBufferOutput implements MessageBufferOutput {
+    private BufferMessageBufferOutput() {
+        this.buffer = null;
+        this.position = 0;
+        this.scratch = null;
+        this.packer = PACKER_CONFIG.newPacker(this);
+    }
+
+    @SuppressWarnings("deprecation")  // To call JsonValue#writeMsgpack(MessagePacker).
+    static int pack(final JsonValue value, final Buffer buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer is null.");
+        }
+
+        final BufferMessageBufferOutput reusable = PER_THREAD.get();
+        // A nested call from JsonValue#writeMsgpack(MessagePacker) on the same thread must not disturb the outer one.
+        final BufferMessageBufferOutput output = reusable.buffer == null ? reusable : new BufferMessageBufferOutput();
+
+        output.buffer = buffer;
+        output.position = buffer.limit();
+        boolean succeeded = false;
+        try {
+            value.writeMsgpack(output.packer);
+            output.packer.flush();
+            succeeded = true;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            output.buffer = null;
+            if (!succeeded && output == reusable) {
+                PER_THREAD.remove();
+            }
+        }
+
+        final int written = output.position - buffer.limit();
+        buffer.limit(output.position);
+        return written;
+    }
+
+    @Override
+    public MessageBuffer next(final int minimumSize) {
+        if (this.scratch == null || this.scratch.size() < minimumSize) {
+            this.scratch = MessageBuffer.allocate(Math.max(minimumSize, SCRATCH_SIZE));
+        }
+        return this.scratch;
+    }
+
+    @Override
+    public void writeBuffer(final int length) {
+        this.write(this.scratch.array(), this.scratch.arrayOffset(), length);
+    }
+
+    @Override
+    public void write(final byte[] source, final int offset, final int length) {
+        if (length > this.buffer.capacity() - this.position) {
+            throw new BufferOverflowException();
+        }
+        this.buffer.setBytes(this.position, source, offset, length);
+        this.position += length;
+    }
+
+    @Override
+    public void add(final byte[] source, final int offset, final int length) {
+        this.write(source, offset, length);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static final int SCRATCH_SIZE = 512;
+
+    private static final MessagePack.PackerConfig PACKER_CONFIG = new MessagePack.PackerConfig().withBufferSize(SCRATCH_SIZE);
+
+    private static final ThreadLocal<BufferMessageBufferOutput> PER_THREAD =
+            ThreadLocal.withInitial(BufferMessageBufferOutput::new);
+
+    private final MessagePacker packer;
+
+    private Buffer buffer;
+    private int position;
+    private MessageBuffer scratch;
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import org.embulk.spi.Buffer;
+
+/**
+ * An {@link OutputStream} that appends bytes into an Embulk {@link Buffer} after its limit.
+ *
+ * <p>The limit of the {@link Buffer} is advanced only by {@link #writeJson(JsonValue, Buffer)} after the whole JSON text is
+ * written, so that the limit is not changed when the text does not fit in the {@link Buffer}.
+ */
+final class BufferOutputStream extends OutputStream {
+    private BufferOutputStream(final Buffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.limit();
+    }
+
+    static int writeJson(final JsonValue value, final Buffer buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer is null.");
+        }
+        final BufferOutputStream outputStream = new BufferOutputStream(buffer);
+        final Utf8Appender appender = new Utf8Appender(outputStream);
+        try {
+            value.writeJson(appender);
+            appender.flush();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        final int written = outputStream.position - buffer.limit();
+        buffer.limit(outputStream.position);
+        return written;
+    }
+
+    @Override
+    public void write(final int b) {
+        if (this.position >= this.buffer.capacity()) {
+            throw new BufferOverflowException();
+        }
+        this.buffer.setBytes(this.position, new byte[] { (byte) b }, 0, 1);
+        this.position++;
+    }
+
+    @Override
+    public void write(final byte[] source, final int offset, final int length) {
+        if (length > this.buffer.capacity() - this.position) {
+            throw new BufferOverflowException();
+        }
+        this.buffer.setBytes(this.position, source, offset, length);
+        this.position += length;
+    }
+
+    private final Buffer buffer;
+
+    private int position;
+}
@@ -16,9 +16,12 @@
 
 package org.embulk.spi.json;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.List;
+import org.msgpack.core.MessagePacker;
 import org.msgpack.value.ArrayValue;
 import org.msgpack.value.Value;
 import org.msgpack.value.impl.ImmutableArrayValueImpl;
@@ -31,29 +34,42 @@ import org.msgpack.value.impl.ImmutableArrayValueImpl;
  * @since 0.10.42
  */
 public final class JsonArray extends AbstractList<JsonValue> implements JsonValue {
-    private JsonArray(final JsonValue[] values) {
+    private JsonArray(final JsonValue[] values, final boolean cacheable) {
         this.values = values;
+        this.msgpackValue = null;
+        this.keyInterner = null;
+        this.cacheable = cacheable;
         this.msgpackArrayCache = null;
+        this.jsonCache = null;
+        this.hash = 0;
     }
 
-    private JsonArray(final JsonValue[] values, final ImmutableArrayValueImpl msgpackValue) {
-        this.values = values;
+    private JsonArray(final ImmutableArrayValueImpl msgpackValue, final JsonKeyInterner keyInterner) {
+        this.values = new JsonValue[msgpackValue.size()];
+        this.msgpackValue = msgpackValue;
+        this.keyInterner = keyInterner;
+        this.cacheable = true;
         this.msgpackArrayCache = msgpackValue;
+        this.jsonCache = null;
+        this.hash = 0;
     }
 
+    /**
+     * Creates a JSON array from a MessagePack's Array value.
+     *
+     * <p>The elements are converted lazily when they are accessed for the first time. Their types are checked here if
+     * {@code checkNested} is {@code true}.
+     */
     @SuppressWarnings("deprecation")
-    static JsonArray fromMsgpack(final ArrayValue msgpackValue) {
+    static JsonArray fromMsgpack(final ArrayValue msgpackValue, final JsonKeyInterner keyInterner, final boolean checkNested) {
         // This cast should always succeed.
         final ImmutableArrayValueImpl immutable = (ImmutableArrayValueImpl) msgpackValue.immutableValue();
-
-        final int size = immutable.size();
-        final JsonValue[] values = new JsonValue[size];
-
-        for (int i = 0; i < size; i++) {
-            values[i] = JsonValue.fromMsgpack(immutable.get(i));
+        if (checkNested) {
+            for (int i = 0; i < immutable.size(); i++) {
+                MsgpackConversion.check(immutable.get(i));
+            }
         }
-
-        return new JsonArray(values, immutable);
+        return new JsonArray(immutable, keyInterner);
     }
 
     /**
@@ -88,7 +104,7 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
                 throw new NullPointerException("values has null.");
             }
         }
-        return new JsonArray(Arrays.copyOf(values, values.length));
+        return new JsonArray(Arrays.copyOf(values, values.length), true);
     }
 
     /**
@@ -112,7 +128,7 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
                 throw new NullPointerException("values has null.");
             }
         }
-        return new JsonArray(values.toArray(new JsonValue[values.size()]));
+        return new JsonArray(values.toArray(new JsonValue[values.size()]), true);
     }
 
     /**
@@ -130,7 +146,17 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
      * @since 0.10.42
      */
     public static JsonArray ofUnsafe(final JsonValue... array) {
-        return new JsonArray(array);
+        // The hash code and the stringified JSON representation are not cached as the array can be modified.
+        return new JsonArray(array, false);
+    }
+
+    /**
+     * Returns a JSON array containing the specified array as its internal representation, which is never modified after this.
+     *
+     * <p>Unlike {@link #ofUnsafe(JsonValue...)}, the hash code and the stringified JSON representation are cached.
+     */
+    static JsonArray ofOwned(final JsonValue[] array) {
+        return new JsonArray(array, true);
     }
 
     /**
@@ -179,7 +205,13 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
         int sum = 4;
 
         for (int i = 0; i < this.values.length; i++) {
-            sum += this.values[i].presumeReferenceSizeInBytes();
+            final JsonValue value = this.values[i];
+            if (value != null) {
+                sum += value.presumeReferenceSizeInBytes();
+            } else {
+                // Not to convert the element only for the approximate size.
+                sum += MsgpackConversion.presumeReferenceSizeInBytes(this.msgpackValue.get(i));
+            }
         }
         return sum;
     }
@@ -207,12 +239,14 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
      */
     @Override
     public JsonValue get(final int index) {
-        return this.values[index];
+        return this.materialize(index);
     }
 
     /**
      * Returns the stringified JSON representation of this JSON array.
      *
+     * <p>The stringified JSON representation is cached in this JSON array unless it is long.
+     *
      * @return the stringified JSON representation of this JSON array
      *
      * @since 0.10.42
@@ -223,15 +257,54 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
             return "[]";
         }
 
+        final String cached = this.jsonCache;
+        if (cached != null) {
+            return cached;
+        }
+
         final StringBuilder builder = new StringBuilder();
-        builder.append("[");
-        builder.append(this.values[0].toJson());
+        try {
+            this.writeJson(builder);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("StringBuilder should never throw IOException.", ex);
+        }
+        final String json = builder.toString();
+        if (this.cacheable && json.length() <= JsonString.MAXIMUM_CACHED_JSON_LENGTH) {
+            // Racy, but safe. String is immutable, and any of the strings built by threads is equal.
+            this.jsonCache = json;
+        }
+        return json;
+    }
+
+    /**
+     * Writes the stringified JSON representation of this JSON array into the specified {@link Appendable}.
+     *
+     * <p>It writes the same as {@link #toJson()}, and its nested JSON values are written directly into the {@link Appendable}.
+     *
+     * @param appendable  the {@link Appendable} to write into, not null
+     * @throws IOException  if the {@link Appendable} throws {@link IOException}
+     *
+     * @since 0.11
+     */
+    @Override
+    public void writeJson(final Appendable appendable) throws IOException {
+        if (this.values.length == 0) {
+            appendable.append("[]");
+            return;
+        }
+        final String cached = this.jsonCache;
+        if (cached != null) {
+            appendable.append(cached);
+            return;
+        }
+
+        appendable.append('[');
+        this.materialize(0).writeJson(appendable);
         for (int i = 1; i < this.values.length; i++) {
-            builder.append(",");
-            builder.append(this.values[i].toJson());
+            appendable.append(',');
+            this.materialize(i).writeJson(appendable);
         }
-        builder.append("]");
-        return builder.toString();
+        appendable.append(']');
     }
 
     /**
@@ -257,12 +330,43 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
 
         final Value[] msgpackValues = new Value[this.values.length];
         for (int i = 0; i < this.values.length; i++) {
-            msgpackValues[i] = this.values[i].toMsgpack();
+            msgpackValues[i] = this.materialize(i).toMsgpack();
         }
         this.msgpackArrayCache = new ImmutableArrayValueImpl(msgpackValues);
         return this.msgpackArrayCache;
     }
 
+    /**
+     * Writes the MessagePack representation of this JSON array into the specified {@link MessagePacker}.
+     *
+     * <p>It writes the cached MessagePack's Array value if any. Otherwise, it writes the nested JSON values directly
+     * without building MessagePack's value objects.
+     *
+     * @param packer  the {@link MessagePacker} to write into, not null
+     * @throws IOException  if the {@link MessagePacker} throws {@link IOException}
+     *
+     * @deprecated Do not use this method. It is to be removed at some point after Embulk v1.0.0.
+     *     It is here only to ensure a migration period from MessagePack-based JSON values to new
+     *     JSON values of {@link JsonValue}.
+     *
+     * @since 0.11
+     */
+    @Deprecated
+    @SuppressWarnings("deprecation")  // To call #writeMsgpack(MessagePacker) of other JsonValue.
+    @Override
+    public void writeMsgpack(final MessagePacker packer) throws IOException {
+        final ImmutableArrayValueImpl cached = this.msgpackArrayCache;
+        if (cached != null) {
+            cached.writeTo(packer);
+            return;
+        }
+
+        packer.packArrayHeader(this.values.length);
+        for (int i = 0; i < this.values.length; i++) {
+            this.materialize(i).writeMsgpack(packer);
+        }
+    }
+
     /**
      * Returns the string representation of this JSON array.
      *
@@ -278,10 +382,10 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
 
         final StringBuilder builder = new StringBuilder();
         builder.append("[");
-        builder.append(this.values[0].toString());
+        builder.append(this.materialize(0).toString());
         for (int i = 1; i < this.values.length; i++) {
             builder.append(",");
-            builder.append(this.values[i].toString());
+            builder.append(this.materialize(i).toString());
         }
         builder.append("]");
         return builder.toString();
@@ -311,29 +415,85 @@ public final class JsonArray extends AbstractList<JsonValue> implements JsonValu
         final JsonArray other = (JsonArray) otherObject;
 
         // The equality of JsonArray should be checked exactly as Java arrays, unlike JsonObject.
-        return Arrays.equals(this.values, other.values);
+        if (this.values.length != other.values.length) {
+            return false;
+        }
+        if (this.hash != 0 && other.hash != 0 && this.hash != other.hash) {
+            return false;
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            if (!this.materialize(i).equals(other.materialize(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
      * Returns the hash code value for this JSON array.
      *
+     * <p>The hash code value is cached in this JSON array once computed.
+     *
      * @return the hash code value for this JSON array
      *
      * @since 0.10.42
      */
     @Override
     public int hashCode() {
-        int hash = 1;
-        for (int i = 0; i < this.values.length; i++) {
-            final JsonValue value = this.values[i];
-            hash = 31 * hash + value.hashCode();
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = 1;
+            for (int i = 0; i < this.values.length; i++) {
+                final JsonValue value = this.materialize(i);
+                hash = 31 * hash + value.hashCode();
+            }
+            if (this.cacheable) {
+                // Racy, but safe as String#hashCode. A hash code 0 is just computed every time.
+                this.hash = hash;
+            }
         }
         return hash;
     }
 
-    private static final JsonArray EMPTY = new JsonArray(new JsonValue[0]);
+    void accumulateRetainedSize(final RetainedSizeEstimator estimator) {
+        estimator.addObject(JsonArray.class);
+        estimator.addReferenceArray(this.values);
+        for (final JsonValue value : this.values) {
+            estimator.add(value);  // null if not converted yet.
+        }
+        estimator.addMsgpack(this.msgpackArrayCache);
+        estimator.addString(this.jsonCache);
+    }
 
+    private JsonValue materialize(final int index) {
+        final JsonValue value = this.values[index];
+        if (value != null) {
+            return value;
+        }
+        // Racy, but safe. JsonValue is immutable, and any of the values converted by threads is equal.
+        // The types of the nested values were checked when this JSON array was created.
+        final JsonValue converted = MsgpackConversion.convert(this.msgpackValue.get(index), this.keyInterner, false);
+        this.values[index] = converted;
+        return converted;
+    }
+
+    private static final JsonArray EMPTY = new JsonArray(new JsonValue[0], true);
+
+    // Elements are null until converted from msgpackValue if this JSON array is created from MessagePack.
     private final JsonValue[] values;
 
+    // MessagePack's Array value that this JSON array is created from, or null.
+    private final ImmutableArrayValueImpl msgpackValue;
+
+    // The JsonKeyInterner to intern keys of JSON objects converted from msgpackValue, or null.
+    private final JsonKeyInterner keyInterner;
+
+    // False if the internal array is given by #ofUnsafe, and can be modified.
+    private final boolean cacheable;
+
     private ImmutableArrayValueImpl msgpackArrayCache;
+
+    private String jsonCache;
+
+    private int hash;
 }
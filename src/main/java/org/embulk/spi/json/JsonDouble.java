@@ -502,6 +502,12 @@ rrowing Primitive Conversion</a>
         return this.value.hashCode();
     }
 
+    void accumulateRetainedSize(final RetainedSizeEstimator estimator) {
+        estimator.addObject(JsonDouble.class);
+        estimator.addMsgpack(this.value);
+        estimator.addString(this.literal);
+    }
+
     private final ImmutableDoubleValueImpl value;
 
     private final String literal;
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded pool of keys of {@link JsonObject} to share one {@link String} instance among equal keys.
+ *
+ * <p>JSON objects in a task often repeat the same small set of keys. Interning the keys lets the JSON objects share
+ * {@link String} instances, which reduces the heap, and makes most key comparisons succeed by reference in
+ * {@link String#equals(Object)}.
+ *
+ * <p>Unlike {@link String#intern()}, it is bounded. Once the pool is full, new keys are returned as-is without being pooled,
+ * so that keys with unbounded variety, such as IDs used as keys, would not grow the pool infinitely. The pool is not shared
+ * globally. Create one, for example, per task, and let it be garbage-collected with the task.
+ *
+ * <p>It is thread-safe.
+ *
+ * @see JsonObject#builder(JsonKeyInterner)
+ * @see JsonObject#ofUnsafe(String[], JsonValue[], JsonKeyInterner)
+ * @see JsonParser#openStream(java.io.InputStream, JsonKeyInterner)
+ *
+ * @since 0.11
+ */
+public final class JsonKeyInterner {
+    private JsonKeyInterner(final int maximumSize) {
+        this.pool = new ConcurrentHashMap<>();
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Creates a {@link JsonKeyInterner} pooling keys up to the specified number.
+     *
+     * @param maximumSize  the maximum number of keys in the pool, approximately
+     * @return the new {@link JsonKeyInterner}
+     * @throws IllegalArgumentException  if the maximum size is negative
+     *
+     * @since 0.11
+     */
+    public static JsonKeyInterner of(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative.");
+        }
+        return new JsonKeyInterner(maximumSize);
+    }
+
+    /**
+     * Returns the pooled {@link String} instance equal to the specified key.
+     *
+     * <p>If no equal key is pooled yet, the specified key is pooled and returned, unless the pool is full.
+     *
+     * @param key  the key, not null
+     * @return the pooled {@link String} instance equal to the key, or the key itself
+     * @throws NullPointerException  if the key is {@code null}
+     *
+     * @since 0.11
+     */
+    public String intern(final String key) {
+        if (key == null) {
+            throw new NullPointerException("key is null.");
+        }
+        final String pooled = this.pool.get(key);
+        if (pooled != null) {
+            return pooled;
+        }
+        // It can exceed the maximum size slightly by racing threads. It is acceptable as a bound.
+        if (this.pool.size() >= this.maximumSize) {
+            return key;
+        }
+        final String existing = this.pool.putIfAbsent(key, key);
+        return existing != null ? existing : key;
+    }
+
+    /**
+     * Returns the number of keys in the pool.
+     *
+     * @return the number of keys in the pool
+     *
+     * @since 0.11
+     */
+    public int size() {
+        return this.pool.size();
+    }
+
+    void internAll(final String[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = this.intern(keys[i]);
+        }
+    }
+
+    private final ConcurrentHashMap<String, String> pool;
+    private final int maximumSize;
+}
@@ -484,6 +484,12 @@ public final class JsonLong implements JsonNumber {
         return this.value.hashCode();
     }
 
+    void accumulateRetainedSize(final RetainedSizeEstimator estimator) {
+        estimator.addObject(JsonLong.class);
+        estimator.addMsgpack(this.value);
+        estimator.addString(this.literal);
+    }
+
     private final ImmutableLongValueImpl value;
 
     private final String literal;
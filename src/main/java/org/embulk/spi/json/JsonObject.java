@@ -16,6 +16,8 @@
 
 package org.embulk.spi.json;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
 import java.util.Iterator;
@@ -24,6 +26,8 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import org.msgpack.core.MessagePacker;
 import org.msgpack.value.MapValue;
 import org.msgpack.value.StringValue;
 import org.msgpack.value.Value;
@@ -38,26 +42,45 @@ import org.msgpack.value.impl.ImmutableStringValueImpl;
  * @since 0.10.42
  */
 public final class JsonObject extends AbstractMap<String, JsonValue> implements JsonValue {
-    private JsonObject(final String[] keys, final JsonValue[] values) {
+    private JsonObject(final String[] keys, final JsonValue[] values, final boolean cacheable) {
         this.keys = keys;
         this.values = values;
+        this.cacheable = cacheable;
         this.msgpackMapCache = null;
+        this.jsonCache = null;
+        this.hash = 0;
+        this.msgpackKeyValues = null;
+        this.keyInterner = null;
+        this.keyIndex = null;
     }
 
-    private JsonObject(final String[] keys, final JsonValue[] values, final ImmutableMapValueImpl msgpackValue) {
+    private JsonObject(
+            final String[] keys, final ImmutableMapValueImpl msgpackValue, final Value[] msgpackKeyValues, final JsonKeyInterner keyInterner) {
         this.keys = keys;
-        this.values = values;
+        this.values = new JsonValue[keys.length];
+        this.cacheable = true;
         this.msgpackMapCache = msgpackValue;
+        this.jsonCache = null;
+        this.hash = 0;
+        this.msgpackKeyValues = msgpackKeyValues;
+        this.keyInterner = keyInterner;
+        this.keyIndex = null;
     }
 
+    /**
+     * Creates a JSON object from a MessagePack's Map value.
+     *
+     * <p>Only the keys are converted here. The values are converted lazily when they are accessed for the first time,
+     * so that a reader of a wide JSON object pays only for the values actually touched. Their types are checked here if
+     * {@code checkNested} is {@code true}.
+     */
     @SuppressWarnings("deprecation")
-    static JsonObject fromMsgpack(final MapValue msgpackValue) {
+    static JsonObject fromMsgpack(final MapValue msgpackValue, final JsonKeyInterner keyInterner, final boolean checkNested) {
         // This cast should always succeed.
         final ImmutableMapValueImpl immutable = (ImmutableMapValueImpl) msgpackValue.immutableValue();
 
         final int size = immutable.size();
         final String[] keys = new String[size];
-        final JsonValue[] values = new JsonValue[size];
 
         final Value[] array = immutable.getKeyValueArray();
         for (int i = 0; i < size; i++) {
@@ -65,13 +88,14 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             if (!keyMsgpack.isStringValue()) {
                 throw new IllegalArgumentException("MessagePack's Map has a non-String key.");
             }
-            keys[i] = ((StringValue) keyMsgpack).asString();
-
-            final Value valueMsgpack = array[i * 2 + 1];
-            values[i] = JsonValue.fromMsgpack(valueMsgpack);
+            final String key = ((StringValue) keyMsgpack).asString();
+            keys[i] = keyInterner != null ? keyInterner.intern(key) : key;
+            if (checkNested) {
+                MsgpackConversion.check(array[i * 2 + 1]);
+            }
         }
 
-        return new JsonObject(keys, values, immutable);
+        return new JsonObject(keys, immutable, array, keyInterner);
     }
 
     /**
@@ -99,7 +123,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k1, final JsonValue v1) {
         return new JsonObject(
                 buildKeys(k1),
-                buildValues(v1));
+                buildValues(v1),
+                true);
     }
 
     /**
@@ -119,7 +144,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k2, final JsonValue v2) {
         return new JsonObject(
                 buildKeys(k1, k2),
-                buildValues(v1, v2));
+                buildValues(v1, v2),
+                true);
     }
 
     /**
@@ -142,7 +168,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k3, final JsonValue v3) {
         return new JsonObject(
                 buildKeys(k1, k2, k3),
-                buildValues(v1, v2, v3));
+                buildValues(v1, v2, v3),
+                true);
     }
 
     /**
@@ -168,7 +195,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k4, final JsonValue v4) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4),
-                buildValues(v1, v2, v3, v4));
+                buildValues(v1, v2, v3, v4),
+                true);
     }
 
     /**
@@ -197,7 +225,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k5, final JsonValue v5) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4, k5),
-                buildValues(v1, v2, v3, v4, v5));
+                buildValues(v1, v2, v3, v4, v5),
+                true);
     }
 
     /**
@@ -229,7 +258,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k6, final JsonValue v6) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4, k5, k6),
-                buildValues(v1, v2, v3, v4, v5, v6));
+                buildValues(v1, v2, v3, v4, v5, v6),
+                true);
     }
 
     /**
@@ -264,7 +294,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k7, final JsonValue v7) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4, k5, k6, k7),
-                buildValues(v1, v2, v3, v4, v5, v6, v7));
+                buildValues(v1, v2, v3, v4, v5, v6, v7),
+                true);
     }
 
     /**
@@ -302,7 +333,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k8, final JsonValue v8) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4, k5, k6, k7, k8),
-                buildValues(v1, v2, v3, v4, v5, v6, v7, v8));
+                buildValues(v1, v2, v3, v4, v5, v6, v7, v8),
+                true);
     }
 
     /**
@@ -343,7 +375,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k9, final JsonValue v9) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4, k5, k6, k7, k8, k9),
-                buildValues(v1, v2, v3, v4, v5, v6, v7, v8, v9));
+                buildValues(v1, v2, v3, v4, v5, v6, v7, v8, v9),
+                true);
     }
 
     /**
@@ -387,7 +420,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             final String k10, final JsonValue v10) {
         return new JsonObject(
                 buildKeys(k1, k2, k3, k4, k5, k6, k7, k8, k9, k10),
-                buildValues(v1, v2, v3, v4, v5, v6, v7, v8, v9, v10));
+                buildValues(v1, v2, v3, v4, v5, v6, v7, v8, v9, v10),
+                true);
     }
 
     /**
@@ -427,7 +461,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             keys[i] = ((JsonString) keyValues[i * 2]).getString();
             values[i] = keyValues[i * 2 + 1];
         }
-        return new JsonObject(keys, values);
+        return new JsonObject(keys, values, true);
     }
 
     /**
@@ -461,7 +495,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
                 throw new NullPointerException("entries has null value.");
             }
         }
-        return new JsonObject(keys, values);
+        return new JsonObject(keys, values, true);
     }
 
     /**
@@ -496,7 +530,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
                 throw new NullPointerException("entries has null value.");
             }
         }
-        return new JsonObject(keys, values);
+        return new JsonObject(keys, values, true);
     }
 
     /**
@@ -528,7 +562,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             }
             index++;
         }
-        return new JsonObject(keys, values);
+        return new JsonObject(keys, values, true);
     }
 
     /**
@@ -561,7 +595,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             }
             index++;
         }
-        return new JsonObject(keys, values);
+        return new JsonObject(keys, values, true);
     }
 
     /**
@@ -580,7 +614,41 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
      * @since 0.10.42
      */
     public static JsonObject ofUnsafe(final String[] keys, final JsonValue[] values) {
-        return new JsonObject(keys, values);
+        // The hash code, the stringified JSON representation, and the key index are not cached as the arrays can be modified.
+        return new JsonObject(keys, values, false);
+    }
+
+    /**
+     * Returns a JSON object containing the specified arrays as its internal representation, with interning the keys.
+     *
+     * <p>The keys in the specified array are replaced in place with the interned instances, which are equal to the original keys.
+     *
+     * <p><strong>This method is not safe</strong> as well as {@link #ofUnsafe(String[], JsonValue[])}.
+     *
+     * @param keys  the array of strings to be the internal representation as the keys in the new {@link JsonObject}
+     * @param values  the array of JSON values to be the internal representation as the values in the new {@link JsonObject}
+     * @param keyInterner  the {@link JsonKeyInterner} to intern the keys, not null
+     * @return a JSON object containing the specified array as the internal representation
+     * @throws NullPointerException  if the key interner is {@code null}
+     *
+     * @since 0.11
+     */
+    public static JsonObject ofUnsafe(final String[] keys, final JsonValue[] values, final JsonKeyInterner keyInterner) {
+        if (keyInterner == null) {
+            throw new NullPointerException("keyInterner is null.");
+        }
+        keyInterner.internAll(keys);
+        return ofUnsafe(keys, values);
+    }
+
+    /**
+     * Returns a JSON object containing the specified arrays as its internal representation, which are never modified after this.
+     *
+     * <p>Unlike {@link #ofUnsafe(String[], JsonValue[])}, the hash code, the stringified JSON representation, and the key
+     * index are cached.
+     */
+    static JsonObject ofOwned(final String[] keys, final JsonValue[] values) {
+        return new JsonObject(keys, values, true);
     }
 
     /**
@@ -591,7 +659,23 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
      * @since 0.10.42
      */
     public static Builder builder() {
-        return new Builder();
+        return new Builder(null);
+    }
+
+    /**
+     * Returns a {@link JsonObject.Builder} which interns keys with the specified {@link JsonKeyInterner}.
+     *
+     * @param keyInterner  the {@link JsonKeyInterner} to intern keys, not null
+     * @return a {@link JsonObject.Builder}
+     * @throws NullPointerException  if the key interner is {@code null}
+     *
+     * @since 0.11
+     */
+    public static Builder builder(final JsonKeyInterner keyInterner) {
+        if (keyInterner == null) {
+            throw new NullPointerException("keyInterner is null.");
+        }
+        return new Builder(keyInterner);
     }
 
     /**
@@ -600,8 +684,9 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
      * @since 0.10.42
      */
     public static class Builder {
-        private Builder() {
+        private Builder(final JsonKeyInterner keyInterner) {
             this.map = new LinkedHashMap<>();
+            this.keyInterner = keyInterner;
         }
 
         /**
@@ -632,7 +717,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             if (value == null) {
                 throw new NullPointerException("value is null.");
             }
-            this.map.put(key, value);
+            this.map.put(this.intern(key), value);
             return this;
         }
 
@@ -653,7 +738,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             if (value == null) {
                 throw new NullPointerException("value is null.");
             }
-            this.map.put(key.getString(), value);
+            this.map.put(this.intern(key.getString()), value);
             return this;
         }
 
@@ -745,7 +830,15 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             return this;
         }
 
+        private String intern(final String key) {
+            if (this.keyInterner == null) {
+                return key;
+            }
+            return this.keyInterner.intern(key);
+        }
+
         private final LinkedHashMap<String, JsonValue> map;
+        private final JsonKeyInterner keyInterner;
     }
 
     /**
@@ -831,9 +924,15 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
         // But at least, it should not be 0 so that the approximate size of an empty object would not be 0.
         int sum = 4;
 
-        for (int i = 0; i < this.values.length; i++) {
+        for (int i = 0; i < this.keys.length; i++) {
             sum += this.keys[i].length() * 2 + 4;
-            sum += this.values[i].presumeReferenceSizeInBytes();
+            final JsonValue value = this.values[i];
+            if (value != null) {
+                sum += value.presumeReferenceSizeInBytes();
+            } else {
+                // Not to convert the value only for the approximate size.
+                sum += MsgpackConversion.presumeReferenceSizeInBytes(this.msgpackKeyValues[i * 2 + 1]);
+            }
         }
         return sum;
     }
@@ -850,6 +949,93 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
         return this.keys.length;
     }
 
+    /**
+     * Returns {@code true} if this JSON object contains a mapping for the specified key.
+     *
+     * <p>It looks up a hash index of the keys for a large JSON object. The index is built lazily at the first lookup.
+     *
+     * @param key  the key whose presence in this JSON object is to be tested
+     * @return {@code true} if this JSON object contains a mapping for the specified key
+     *
+     * @since 0.11
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns the JSON value to which the specified key is mapped, or {@code null} if this JSON object contains no mapping for the key.
+     *
+     * <p>If this JSON object contains duplicate keys, the value of the first occurrence of the key is returned.
+     *
+     * <p>It looks up a hash index of the keys for a large JSON object. The index is built lazily at the first lookup.
+     *
+     * @param key  the key whose associated value is to be returned
+     * @return the JSON value to which the specified key is mapped, or {@code null} if this JSON object contains no mapping for the key
+     *
+     * @since 0.11
+     */
+    @Override
+    public JsonValue get(final Object key) {
+        final int index = this.indexOfKey(key);
+        if (index < 0) {
+            return null;
+        }
+        return this.materialize(index);
+    }
+
+    /**
+     * Returns the key at the specified position in this JSON object.
+     *
+     * <p>The position is in the order of the JSON key-value mappings when this JSON object was created. Together with
+     * {@link #valueAt(int)}, it walks through this JSON object without allocating any {@link java.util.Map.Entry}.
+     *
+     * @param index  the position of the JSON key-value mapping, from {@code 0} to {@code size() - 1}
+     * @return the key at the specified position
+     * @throws IndexOutOfBoundsException  if the index is out of range
+     *
+     * @since 0.11
+     */
+    public String keyAt(final int index) {
+        return this.keys[index];
+    }
+
+    /**
+     * Returns the JSON value at the specified position in this JSON object.
+     *
+     * @param index  the position of the JSON key-value mapping, from {@code 0} to {@code size() - 1}
+     * @return the JSON value at the specified position
+     * @throws IndexOutOfBoundsException  if the index is out of range
+     *
+     * @see #keyAt(int)
+     *
+     * @since 0.11
+     */
+    public JsonValue valueAt(final int index) {
+        return this.materialize(index);
+    }
+
+    /**
+     * Performs the given action for each JSON key-value mapping in this JSON object in order.
+     *
+     * <p>It does not allocate any {@link java.util.Map.Entry} unlike iterating over {@link #entrySet()}.
+     *
+     * @param action  the action to be performed for each JSON key-value mapping, not null
+     * @throws NullPointerException  if the action is {@code null}
+     *
+     * @since 0.11
+     */
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super JsonValue> action) {
+        if (action == null) {
+            throw new NullPointerException("action is null.");
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            action.accept(this.keys[i], this.materialize(i));
+        }
+    }
+
     /**
      * Returns a {@link java.util.Set} view of the JSON key-value mappings contained in this JSON object.
      *
@@ -861,7 +1047,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
      */
     @Override
     public Set<Map.Entry<String, JsonValue>> entrySet() {
-        return new EntrySet(this.keys, this.values);
+        return new EntrySet(this);
     }
 
     /**
@@ -875,7 +1061,7 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
         final JsonValue[] keyValues = new JsonValue[this.keys.length * 2];
         for (int i = 0; i < this.keys.length; i++) {
             keyValues[i * 2] = JsonString.of(this.keys[i]);
-            keyValues[i * 2 + 1] = this.values[i];
+            keyValues[i * 2 + 1] = this.materialize(i);
         }
         return keyValues;
     }
@@ -883,6 +1069,8 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
     /**
      * Returns the stringified JSON representation of this JSON object.
      *
+     * <p>The stringified JSON representation is cached in this JSON object unless it is long.
+     *
      * @return the stringified JSON representation of this JSON object
      *
      * @since 0.10.42
@@ -893,19 +1081,59 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
             return "{}";
         }
 
+        final String cached = this.jsonCache;
+        if (cached != null) {
+            return cached;
+        }
+
         final StringBuilder builder = new StringBuilder();
-        builder.append("{");
-        builder.append(JsonString.escapeStringForJsonLiteral(this.keys[0]));
-        builder.append(":");
-        builder.append(this.values[0].toJson());
+        try {
+            this.writeJson(builder);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("StringBuilder should never throw IOException.", ex);
+        }
+        final String json = builder.toString();
+        if (this.cacheable && json.length() <= JsonString.MAXIMUM_CACHED_JSON_LENGTH) {
+            // Racy, but safe. String is immutable, and any of the strings built by threads is equal.
+            this.jsonCache = json;
+        }
+        return json;
+    }
+
+    /**
+     * Writes the stringified JSON representation of this JSON object into the specified {@link Appendable}.
+     *
+     * <p>It writes the same as {@link #toJson()}, and its keys and nested JSON values are written directly into the
+     * {@link Appendable}.
+     *
+     * @param appendable  the {@link Appendable} to write into, not null
+     * @throws IOException  if the {@link Appendable} throws {@link IOException}
+     *
+     * @since 0.11
+     */
+    @Override
+    public void writeJson(final Appendable appendable) throws IOException {
+        if (this.keys.length == 0) {
+            appendable.append("{}");
+            return;
+        }
+        final String cached = this.jsonCache;
+        if (cached != null) {
+            appendable.append(cached);
+            return;
+        }
+
+        appendable.append('{');
+        JsonString.appendEscapedStringForJsonLiteral(this.keys[0], appendable);
+        appendable.append(':');
+        this.materialize(0).writeJson(appendable);
         for (int i = 1; i < this.keys.length; i++) {
-            builder.append(",");
-            builder.append(JsonString.escapeStringForJsonLiteral(this.keys[i]));
-            builder.append(":");
-            builder.append(this.values[i].toJson());
+            appendable.append(',');
+            JsonString.appendEscapedStringForJsonLiteral(this.keys[i], appendable);
+            appendable.append(':');
+            this.materialize(i).writeJson(appendable);
         }
-        builder.append("}");
-        return builder.toString();
+        appendable.append('}');
     }
 
     /**
@@ -932,12 +1160,44 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
         final Value[] msgpackKeyValues = new Value[this.keys.length * 2];
         for (int i = 0; i < this.keys.length; i++) {
             msgpackKeyValues[i * 2] = new ImmutableStringValueImpl(this.keys[i]);
-            msgpackKeyValues[i * 2 + 1] = this.values[i].toMsgpack();
+            msgpackKeyValues[i * 2 + 1] = this.materialize(i).toMsgpack();
         }
         this.msgpackMapCache = new ImmutableMapValueImpl(msgpackKeyValues);
         return this.msgpackMapCache;
     }
 
+    /**
+     * Writes the MessagePack representation of this JSON object into the specified {@link MessagePacker}.
+     *
+     * <p>It writes the cached MessagePack's Map value if any. Otherwise, it writes the nested JSON values directly
+     * without building MessagePack's value objects.
+     *
+     * @param packer  the {@link MessagePacker} to write into, not null
+     * @throws IOException  if the {@link MessagePacker} throws {@link IOException}
+     *
+     * @deprecated Do not use this method. It is to be removed at some point after Embulk v1.0.0.
+     *     It is here only to ensure a migration period from MessagePack-based JSON values to new
+     *     JSON values of {@link JsonValue}.
+     *
+     * @since 0.11
+     */
+    @Deprecated
+    @SuppressWarnings("deprecation")  // To call #writeMsgpack(MessagePacker) of other JsonValue.
+    @Override
+    public void writeMsgpack(final MessagePacker packer) throws IOException {
+        final ImmutableMapValueImpl cached = this.msgpackMapCache;
+        if (cached != null) {
+            cached.writeTo(packer);
+            return;
+        }
+
+        packer.packMapHeader(this.keys.length);
+        for (int i = 0; i < this.keys.length; i++) {
+            packer.packString(this.keys[i]);
+            this.materialize(i).writeMsgpack(packer);
+        }
+    }
+
     /**
      * Returns the string representation of this JSON object.
      *
@@ -955,12 +1215,12 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
         builder.append("{");
         builder.append(JsonString.escapeStringForJsonLiteral(this.keys[0]));
         builder.append(":");
-        builder.append(this.values[0].toString());
+        builder.append(this.materialize(0).toString());
         for (int i = 1; i < this.keys.length; i++) {
             builder.append(",");
             builder.append(JsonString.escapeStringForJsonLiteral(this.keys[i]));
             builder.append(":");
-            builder.append(this.values[i].toString());
+            builder.append(this.materialize(i).toString());
         }
         builder.append("}");
         return builder.toString();
@@ -989,6 +1249,18 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
 
         final JsonObject other = (JsonObject) otherObject;
 
+        if (this.keys.length != other.keys.length) {
+            return false;
+        }
+        if (this.hash != 0 && other.hash != 0 && this.hash != other.hash) {
+            return false;
+        }
+
+        // JSON objects built in the same way usually have their keys in the same order.
+        if (this.equalsInSameOrder(other)) {
+            return true;
+        }
+
         // The equality of JsonObject should be checked like a Map, not by the internal key-value array.
         // For example, the order of the internal key-value array should not impact the equality of JsonObject.
         return Objects.equals(this.entrySet(), other.entrySet());
@@ -997,67 +1269,187 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
     /**
      * Returns the hash code value for this JSON object.
      *
+     * <p>The hash code value is cached in this JSON object once computed.
+     *
      * @return the hash code value for this JSON object
      *
      * @since 0.10.42
      */
     @Override
     public int hashCode() {
-        int hash = 0;
-        for (int i = 0; i < this.keys.length; i++) {
-            hash += this.keys[i].hashCode() ^ this.values[i].hashCode();
+        int hash = this.hash;
+        if (hash == 0) {
+            for (int i = 0; i < this.keys.length; i++) {
+                hash += this.keys[i].hashCode() ^ this.materialize(i).hashCode();
+            }
+            if (this.cacheable) {
+                // Racy, but safe as String#hashCode. A hash code 0 is just computed every time.
+                this.hash = hash;
+            }
         }
         return hash;
     }
 
+    private boolean equalsInSameOrder(final JsonObject other) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (!this.keys[i].equals(other.keys[i]) || !this.materialize(i).equals(other.materialize(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void accumulateRetainedSize(final RetainedSizeEstimator estimator) {
+        estimator.addObject(JsonObject.class);
+        estimator.addReferenceArray(this.keys);
+        for (final String key : this.keys) {
+            estimator.addString(key);
+        }
+        estimator.addReferenceArray(this.values);
+        for (final JsonValue value : this.values) {
+            estimator.add(value);  // null if not converted yet.
+        }
+        // Its elements are shared with msgpackMapCache.
+        estimator.addReferenceArray(this.msgpackKeyValues);
+        estimator.addMsgpack(this.msgpackMapCache);
+        estimator.addString(this.jsonCache);
+        final KeyIndex keyIndex = this.keyIndex;
+        if (keyIndex != null) {
+            estimator.addObject(KeyIndex.class);
+            estimator.addIntArray(keyIndex.slots);
+        }
+    }
+
+    private JsonValue materialize(final int index) {
+        final JsonValue value = this.values[index];
+        if (value != null) {
+            return value;
+        }
+        // Racy, but safe. JsonValue is immutable, and any of the values converted by threads is equal.
+        // The types of the nested values were checked when this JSON object was created.
+        final JsonValue converted = MsgpackConversion.convert(this.msgpackKeyValues[index * 2 + 1], this.keyInterner, false);
+        this.values[index] = converted;
+        return converted;
+    }
+
+    private int indexOfKey(final Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        // The key index is not cached if the keys can be modified after creation by #ofUnsafe.
+        if (this.keys.length <= KEY_INDEX_THRESHOLD || !this.cacheable) {
+            for (int i = 0; i < this.keys.length; i++) {
+                if (key.equals(this.keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        KeyIndex keyIndex = this.keyIndex;
+        if (keyIndex == null) {
+            // Racy, but safe. Threads may build their own indexes, and any of them is correct.
+            keyIndex = new KeyIndex(this.keys);
+            this.keyIndex = keyIndex;
+        }
+        return keyIndex.indexOf(this.keys, (String) key);
+    }
+
+    /**
+     * An open-addressing hash index from keys to their first positions in the key array.
+     *
+     * <p>It is immutable with a final field so that it is published safely to other threads without synchronization.
+     */
+    private static final class KeyIndex {
+        KeyIndex(final String[] keys) {
+            // Keep the load factor 0.5 at most.
+            final int capacity = Integer.highestOneBit(Math.max(keys.length, 1)) << 2;
+            final int mask = capacity - 1;
+            final int[] slots = new int[capacity];
+            for (int i = 0; i < keys.length; i++) {
+                int slot = spread(keys[i].hashCode()) & mask;
+                while (true) {
+                    final int stored = slots[slot];
+                    if (stored == 0) {
+                        slots[slot] = i + 1;
+                        break;
+                    }
+                    if (keys[stored - 1].equals(keys[i])) {
+                        break;  // Keep the first occurrence of a duplicate key.
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            this.slots = slots;
+        }
+
+        int indexOf(final String[] keys, final String key) {
+            final int mask = this.slots.length - 1;
+            int slot = spread(key.hashCode()) & mask;
+            while (true) {
+                final int stored = this.slots[slot];
+                if (stored == 0) {
+                    return -1;
+                }
+                if (keys[stored - 1].equals(key)) {
+                    return stored - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        // Positions in the key array plus 1. 0 means an empty slot.
+        private final int[] slots;
+    }
+
     private static class EntrySet extends AbstractSet<Map.Entry<String, JsonValue>> {
-        EntrySet(final String[] keys, final JsonValue[] values) {
-            this.keys = keys;
-            this.values = values;
+        EntrySet(final JsonObject object) {
+            this.object = object;
         }
 
         @Override
         public int size() {
-            return this.keys.length;
+            return this.object.size();
         }
 
         @Override
         public Iterator<Map.Entry<String, JsonValue>> iterator() {
-            return new EntryIterator(this.keys, this.values);
+            return new EntryIterator(this.object);
         }
 
-        private final String[] keys;
-        private final JsonValue[] values;
+        private final JsonObject object;
     }
 
     private static class EntryIterator implements Iterator<Map.Entry<String, JsonValue>> {
-        EntryIterator(final String[] keys, final JsonValue[] values) {
-            this.keys = keys;
-            this.values = values;
+        EntryIterator(final JsonObject object) {
+            this.object = object;
             this.index = 0;
         }
 
         @Override
         public boolean hasNext() {
-            return this.index < this.keys.length;
+            return this.index < this.object.size();
         }
 
         @Override
         public Map.Entry<String, JsonValue> next() {
-            if (this.index >= this.values.length) {
+            if (this.index >= this.object.size()) {
                 throw new NoSuchElementException();
             }
 
-            final String key = this.keys[index];
-            final JsonValue value = this.values[index];
+            final String key = this.object.keyAt(this.index);
+            final JsonValue value = this.object.valueAt(this.index);
             final Map.Entry<String, JsonValue> pair = new AbstractMap.SimpleImmutableEntry<>(key, value);
 
             this.index++;
             return pair;
         }
 
-        private final String[] keys;
-        private final JsonValue[] values;
+        private final JsonObject object;
 
         private int index;
     }
@@ -1080,10 +1472,30 @@ public final class JsonObject extends AbstractMap<String, JsonValue> implements
         return values;
     }
 
-    private static final JsonObject EMPTY = new JsonObject(new String[0], new JsonValue[0]);
+    private static final JsonObject EMPTY = new JsonObject(new String[0], new JsonValue[0], true);
+
+    // A linear scan on the key array is faster than hashing for small JSON objects.
+    private static final int KEY_INDEX_THRESHOLD = 8;
 
     private final String[] keys;
+
+    // Elements are null until converted from msgpackKeyValues if this JSON object is created from MessagePack.
     private final JsonValue[] values;
 
+    // The key-value array of MessagePack's Map that this JSON object is created from, or null.
+    private final Value[] msgpackKeyValues;
+
+    // The JsonKeyInterner to intern keys of JSON objects converted from msgpackKeyValues, or null.
+    private final JsonKeyInterner keyInterner;
+
+    // False if the internal arrays are given by #ofUnsafe, and can be modified.
+    private final boolean cacheable;
+
     private ImmutableMapValueImpl msgpackMapCache;
+
+    private String jsonCache;
+
+    private int hash;
+
+    private KeyIndex keyIndex;
 }
@@ -0,0 +1,719 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.embulk.spi.Buffer;
+import org.embulk.spi.FileInput;
+
+/**
+ * Parses JSON text into {@link JsonValue}s.
+ *
+ * <p>It parses JSON strictly in accordance with RFC 8259. Malformed UTF-8 in bytes is reported as an error, not replaced
+ * with U+FFFD. It builds {@link JsonObject} and {@link JsonArray} directly from
+ * their internal arrays, without intermediate {@link java.util.Map}s nor {@link java.util.List}s.
+ *
+ * <p>It keeps the literal of a number or a string with {@code withLiteral} only when the literal is different from the
+ * canonical representation of the value, for example, {@code 1.0e3}, {@code -0}, or {@code "A"}. An integral number
+ * out of the range of {@code long} is parsed as {@link JsonDouble} with its literal.
+ *
+ * @see <a href="https://datatracker.ietf.org/doc/html/rfc8259">RFC 8259 - The JavaScript Object Notation (JSON) Data Interchange Format</a>
+ *
+ * @since 0.11
+ */
+public final class JsonParser {
+    private JsonParser(final char[] buffer, final int position, final int limit, final Reader reader, final JsonKeyInterner keyInterner) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+        this.reader = reader;
+        this.keyInterner = keyInterner;
+        this.consumedBeforeBuffer = -position;
+    }
+
+    /**
+     * Parses a JSON text into a {@link JsonValue}.
+     *
+     * @param json  the JSON text, not null
+     * @return the parsed {@link JsonValue}
+     * @throws JsonParseException  if the text is not a single valid JSON value
+     *
+     * @since 0.11
+     */
+    public static JsonValue parse(final CharSequence json) {
+        if (json == null) {
+            throw new NullPointerException("json is null.");
+        }
+        final char[] chars;
+        if (json instanceof String) {
+            chars = ((String) json).toCharArray();
+        } else {
+            chars = json.toString().toCharArray();
+        }
+        return new JsonParser(chars, 0, chars.length, null, null).parseSingle();
+    }
+
+    /**
+     * Parses a JSON text encoded in UTF-8 into a {@link JsonValue}.
+     *
+     * @param utf8  the byte array containing the JSON text encoded in UTF-8, not null
+     * @param offset  the offset of the JSON text in the byte array
+     * @param length  the length of the JSON text in bytes
+     * @return the parsed {@link JsonValue}
+     * @throws JsonParseException  if the text is not a single valid JSON value, or is not valid UTF-8
+     *
+     * @since 0.11
+     */
+    public static JsonValue parse(final byte[] utf8, final int offset, final int length) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 is null.");
+        }
+        final CharBuffer decoded;
+        try {
+            decoded = newStrictDecoder().decode(ByteBuffer.wrap(utf8, offset, length));
+        } catch (final CharacterCodingException ex) {
+            throw new JsonParseException("Invalid UTF-8 in the JSON text.", ex);
+        }
+        return new JsonParser(decoded.array(), decoded.arrayOffset() + decoded.position(), decoded.arrayOffset() + decoded.limit(), null, null)
+                .parseSingle();
+    }
+
+    /**
+     * Opens a {@link StreamReader} to read a sequence of JSON values from a UTF-8 {@link java.io.InputStream}.
+     *
+     * <p>The JSON values in the stream are separated by whitespaces, for example, in JSON Lines.
+     *
+     * @param inputStream  the {@link java.io.InputStream} to read, not null
+     * @return the {@link StreamReader}
+     *
+     * @since 0.11
+     */
+    public static StreamReader openStream(final InputStream inputStream) {
+        if (inputStream == null) {
+            throw new NullPointerException("inputStream is null.");
+        }
+        return new StreamReader(inputStream, null);
+    }
+
+    /**
+     * Opens a {@link StreamReader} to read a sequence of JSON values from a UTF-8 {@link java.io.InputStream}, with interning
+     * keys of JSON objects.
+     *
+     * @param inputStream  the {@link java.io.InputStream} to read, not null
+     * @param keyInterner  the {@link JsonKeyInterner} to intern keys of JSON objects, not null
+     * @return the {@link StreamReader}
+     *
+     * @since 0.11
+     */
+    public static StreamReader openStream(final InputStream inputStream, final JsonKeyInterner keyInterner) {
+        if (inputStream == null) {
+            throw new NullPointerException("inputStream is null.");
+        }
+        if (keyInterner == null) {
+            throw new NullPointerException("keyInterner is null.");
+        }
+        return new StreamReader(inputStream, keyInterner);
+    }
+
+    /**
+     * Opens a {@link StreamReader} to read a sequence of JSON values from the current file of a {@link FileInput} in UTF-8.
+     *
+     * <p>It reads {@link Buffer}s by {@link FileInput#poll()}, and releases them. It does not call {@link FileInput#nextFile()}.
+     *
+     * @param fileInput  the {@link FileInput} to read, not null
+     * @return the {@link StreamReader}
+     *
+     * @since 0.11
+     */
+    public static StreamReader openStream(final FileInput fileInput) {
+        if (fileInput == null) {
+            throw new NullPointerException("fileInput is null.");
+        }
+        return new StreamReader(new FileInputInputStream(fileInput), null);
+    }
+
+    /**
+     * Opens a {@link StreamReader} to read a sequence of JSON values from the current file of a {@link FileInput} in UTF-8,
+     * with interning keys of JSON objects.
+     *
+     * @param fileInput  the {@link FileInput} to read, not null
+     * @param keyInterner  the {@link JsonKeyInterner} to intern keys of JSON objects, not null
+     * @return the {@link StreamReader}
+     *
+     * @since 0.11
+     */
+    public static StreamReader openStream(final FileInput fileInput, final JsonKeyInterner keyInterner) {
+        if (fileInput == null) {
+            throw new NullPointerException("fileInput is null.");
+        }
+        if (keyInterner == null) {
+            throw new NullPointerException("keyInterner is null.");
+        }
+        return new StreamReader(new FileInputInputStream(fileInput), keyInterner);
+    }
+
+    /**
+     * Reads a sequence of JSON values separated by whitespaces from a stream.
+     *
+     * @since 0.11
+     */
+    public static final class StreamReader implements AutoCloseable {
+        private StreamReader(final InputStream inputStream, final JsonKeyInterner keyInterner) {
+            this.inputStream = inputStream;
+            this.parser = new JsonParser(
+                    new char[STREAM_BUFFER_SIZE], 0, 0, new InputStreamReader(inputStream, newStrictDecoder()), keyInterner);
+            this.started = false;
+        }
+
+        /**
+         * Reads the next JSON value.
+         *
+         * @return the next JSON value, or {@code null} if the stream has reached the end
+         * @throws JsonParseException  if the stream contains invalid JSON, or invalid UTF-8
+         * @throws java.io.UncheckedIOException  if the stream fails to be read
+         *
+         * @since 0.11
+         */
+        public JsonValue readNext() {
+            if (!this.started) {
+                this.started = true;
+                if (this.parser.peek() == '\ufeff') {  // Skip the byte order mark.
+                    this.parser.position++;
+                }
+            }
+            if (this.parser.skipWhitespaceAndPeek() < 0) {
+                return null;
+            }
+            return this.parser.readValue(0);
+        }
+
+        /**
+         * Releases the resources held by this {@link StreamReader}.
+         *
+         * <p>It does not close the underlying {@link java.io.InputStream} nor {@link FileInput}.
+         *
+         * @since 0.11
+         */
+        @Override
+        public void close() {
+            if (this.inputStream instanceof FileInputInputStream) {
+                ((FileInputInputStream) this.inputStream).releaseCurrent();
+            }
+        }
+
+        private final InputStream inputStream;
+        private final JsonParser parser;
+        private boolean started;
+    }
+
+    private JsonValue parseSingle() {
+        if (this.skipWhitespaceAndPeek() < 0) {
+            throw this.error("No JSON value is found");
+        }
+        final JsonValue value = this.readValue(0);
+        if (this.skipWhitespaceAndPeek() >= 0) {
+            throw this.error("Unexpected character after the JSON value");
+        }
+        return value;
+    }
+
+    private JsonValue readValue(final int depth) {
+        final int c = this.skipWhitespaceAndPeek();
+        switch (c) {
+            case '{':
+                return this.readObject(depth);
+            case '[':
+                return this.readArray(depth);
+            case '"':
+                this.position++;
+                return this.readStringValue();
+            case 't':
+                this.expectKeyword("true");
+                return JsonBoolean.TRUE;
+            case 'f':
+                this.expectKeyword("false");
+                return JsonBoolean.FALSE;
+            case 'n':
+                this.expectKeyword("null");
+                return JsonNull.NULL;
+            case -1:
+                throw this.error("Unexpected end of JSON");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return this.readNumber();
+                }
+                throw this.error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private JsonObject readObject(final int depth) {
+        if (depth >= MAXIMUM_DEPTH) {
+            throw this.error("JSON is nested too deeply");
+        }
+        this.position++;  // '{'
+        if (this.skipWhitespaceAndPeek() == '}') {
+            this.position++;
+            return JsonObject.of();
+        }
+
+        String[] keys = new String[8];
+        JsonValue[] values = new JsonValue[8];
+        int size = 0;
+        while (true) {
+            if (this.skipWhitespaceAndPeek() != '"') {
+                throw this.error("Expected a string key in a JSON object");
+            }
+            this.position++;
+            final String key = this.readString(false);
+            if (this.skipWhitespaceAndPeek() != ':') {
+                throw this.error("Expected ':' in a JSON object");
+            }
+            this.position++;
+            final JsonValue value = this.readValue(depth + 1);
+
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = this.keyInterner != null ? this.keyInterner.intern(key) : key;
+            values[size] = value;
+            size++;
+
+            final int c = this.skipWhitespaceAndPeek();
+            this.position++;
+            if (c == ',') {
+                continue;
+            }
+            if (c == '}') {
+                break;
+            }
+            this.position--;
+            throw this.error("Expected ',' or '}' in a JSON object");
+        }
+        return JsonObject.ofOwned(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    private JsonArray readArray(final int depth) {
+        if (depth >= MAXIMUM_DEPTH) {
+            throw this.error("JSON is nested too deeply");
+        }
+        this.position++;  // '['
+        if (this.skipWhitespaceAndPeek() == ']') {
+            this.position++;
+            return JsonArray.of();
+        }
+
+        JsonValue[] values = new JsonValue[8];
+        int size = 0;
+        while (true) {
+            final JsonValue value = this.readValue(depth + 1);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            size++;
+
+            final int c = this.skipWhitespaceAndPeek();
+            this.position++;
+            if (c == ',') {
+                continue;
+            }
+            if (c == ']') {
+                break;
+            }
+            this.position--;
+            throw this.error("Expected ',' or ']' in a JSON array");
+        }
+        return JsonArray.ofOwned(Arrays.copyOf(values, size));
+    }
+
+    private JsonString readStringValue() {
+        final String value = this.readString(true);
+        final String literal = this.lastStringLiteral;
+        if (literal == null) {
+            return JsonString.of(value);
+        }
+        this.lastStringLiteral = null;
+        return JsonString.withLiteral(value, literal);
+    }
+
+    /**
+     * Reads a string after the opening quote, and leaves its literal in {@code lastStringLiteral} if it is not canonical.
+     */
+    private String readString(final boolean keepLiteral) {
+        StringBuilder builder = null;
+        StringBuilder raw = null;  // Created only for a string with escapes whose literal is kept.
+        int start = this.position;
+        while (true) {
+            if (this.position >= this.limit) {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(this.buffer, start, this.position - start);
+                if (raw != null) {
+                    raw.append(this.buffer, start, this.position - start);
+                }
+                if (!this.fill()) {
+                    throw this.error("Unterminated string");
+                }
+                start = this.position;
+                continue;
+            }
+
+            final char c = this.buffer[this.position];
+            if (c == '"') {
+                final String value;
+                if (builder == null) {
+                    value = new String(this.buffer, start, this.position - start);
+                } else {
+                    builder.append(this.buffer, start, this.position - start);
+                    value = builder.toString();
+                }
+                if (raw != null) {
+                    raw.append(this.buffer, start, this.position - start);
+                    raw.append('"');
+                    final String literal = raw.toString();
+                    if (!literal.equals(JsonString.escapeStringForJsonLiteral(value))) {
+                        this.lastStringLiteral = literal;
+                    }
+                }
+                this.position++;
+                return value;
+            }
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                if (keepLiteral && raw == null) {
+                    raw = new StringBuilder().append('"').append(builder);
+                }
+                builder.append(this.buffer, start, this.position - start);
+                if (raw != null) {
+                    raw.append(this.buffer, start, this.position - start);
+                }
+                this.position++;
+                this.readEscape(builder, raw);
+                start = this.position;
+                continue;
+            }
+            if (c < 0x20) {
+                throw this.error("Unescaped control character in a string");
+            }
+            this.position++;
+        }
+    }
+
+    private void readEscape(final StringBuilder builder, final StringBuilder raw) {
+        final int c = this.read();
+        if (raw != null) {
+            raw.append('\\');
+            if (c >= 0) {
+                raw.append((char) c);
+            }
+        }
+        switch (c) {
+            case '"':
+                builder.append('"');
+                return;
+            case '\\':
+                builder.append('\\');
+                return;
+            case '/':
+                builder.append('/');
+                return;
+            case 'b':
+                builder.append('\b');
+                return;
+            case 'f':
+                builder.append('\f');
+                return;
+            case 'n':
+                builder.append('\n');
+                return;
+            case 'r':
+                builder.append('\r');
+                return;
+            case 't':
+                builder.append('\t');
+                return;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int h = this.read();
+                    final int digit = Character.digit(h < 0 ? -1 : (char) h, 16);
+                    if (h < 0 || digit < 0) {
+                        throw this.error("Invalid unicode escape in a string");
+                    }
+                    if (raw != null) {
+                        raw.append((char) h);
+                    }
+                    code = (code << 4) | digit;
+                }
+                builder.append((char) code);
+                return;
+            default:
+                throw this.error("Invalid escape in a string");
+        }
+    }
+
+    private JsonValue readNumber() {
+        final String literal = this.readNumberLiteral();
+        final int length = literal.length();
+
+        // Validate the grammar: -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+        int i = 0;
+        if (literal.charAt(i) == '-') {
+            i++;
+        }
+        if (i < length && literal.charAt(i) == '0') {
+            i++;
+        } else {
+            i = this.skipDigits(literal, i);
+        }
+        boolean integral = true;
+        if (i < length && literal.charAt(i) == '.') {
+            integral = false;
+            i = this.skipDigits(literal, i + 1);
+        }
+        if (i < length && (literal.charAt(i) == 'e' || literal.charAt(i) == 'E')) {
+            integral = false;
+            i++;
+            if (i < length && (literal.charAt(i) == '+' || literal.charAt(i) == '-')) {
+                i++;
+            }
+            i = this.skipDigits(literal, i);
+        }
+        if (i != length) {
+            throw this.error("Invalid number '" + literal + "'");
+        }
+
+        if (integral) {
+            if (length <= 18) {  // Always in the range of long.
+                final long value = Long.parseLong(literal);
+                if (value == 0 && length == 2) {
+                    return JsonLong.withLiteral(0, literal);  // "-0"
+                }
+                return JsonLong.of(value);
+            }
+            try {
+                return JsonLong.of(Long.parseLong(literal));
+            } catch (final NumberFormatException ex) {
+                // Out of the range of long.
+            }
+        }
+
+        final double value = Double.parseDouble(literal);
+        if (Double.isInfinite(value)) {
+            throw this.error("Number out of range '" + literal + "'");
+        }
+        if (!integral && Double.toString(value).equals(literal)) {
+            return JsonDouble.of(value);
+        }
+        return JsonDouble.withLiteral(value, literal);
+    }
+
+    private String readNumberLiteral() {
+        StringBuilder builder = null;
+        int start = this.position;
+        while (true) {
+            if (this.position >= this.limit) {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(this.buffer, start, this.position - start);
+                if (!this.fill()) {
+                    return builder.toString();
+                }
+                start = this.position;
+                continue;
+            }
+            final char c = this.buffer[this.position];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                this.position++;
+                continue;
+            }
+            if (builder == null) {
+                return new String(this.buffer, start, this.position - start);
+            }
+            builder.append(this.buffer, start, this.position - start);
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Skips one or more digits from {@code index}, and returns the index after the digits.
+     */
+    private int skipDigits(final String literal, final int index) {
+        int i = index;
+        while (i < literal.length() && literal.charAt(i) >= '0' && literal.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == index) {
+            throw this.error("Invalid number '" + literal + "'");
+        }
+        return i;
+    }
+
+    private void expectKeyword(final String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if (this.read() != keyword.charAt(i)) {
+                throw this.error("Invalid literal, expected '" + keyword + "'");
+            }
+        }
+    }
+
+    private int skipWhitespaceAndPeek() {
+        while (true) {
+            if (this.position >= this.limit && !this.fill()) {
+                return -1;
+            }
+            final char c = this.buffer[this.position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            this.position++;
+        }
+    }
+
+    private int peek() {
+        if (this.position >= this.limit && !this.fill()) {
+            return -1;
+        }
+        return this.buffer[this.position];
+    }
+
+    private int read() {
+        if (this.position >= this.limit && !this.fill()) {
+            return -1;
+        }
+        return this.buffer[this.position++];
+    }
+
+    private boolean fill() {
+        if (this.reader == null) {
+            return false;
+        }
+        this.consumedBeforeBuffer += this.limit;
+        this.position = 0;
+        this.limit = 0;
+        try {
+            int read;
+            do {
+                read = this.reader.read(this.buffer, 0, this.buffer.length);
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            this.limit = read;
+            return true;
+        } catch (final CharacterCodingException ex) {
+            throw this.error("Invalid UTF-8", ex);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private JsonParseException error(final String message) {
+        return new JsonParseException(message + " at character " + (this.consumedBeforeBuffer + this.position) + ".");
+    }
+
+    private JsonParseException error(final String message, final Throwable cause) {
+        return new JsonParseException(message + " at character " + (this.consumedBeforeBuffer + this.position) + ".", cause);
+    }
+
+    private static CharsetDecoder newStrictDecoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * Reads bytes from the current file of {@link FileInput}.
+     */
+    private static final class FileInputInputStream extends InputStream {
+        FileInputInputStream(final FileInput fileInput) {
+            this.fileInput = fileInput;
+            this.current = null;
+            this.position = 0;
+        }
+
+        @Override
+        public int read() {
+            final byte[] single = new byte[1];
+            final int read = this.read(single, 0, 1);
+            if (read <= 0) {
+                return -1;
+            }
+            return single[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            while (this.current == null || this.position >= this.current.limit()) {
+                this.releaseCurrent();
+                this.current = this.fileInput.poll();
+                if (this.current == null) {
+                    return -1;
+                }
+            }
+            final int read = Math.min(length, this.current.limit() - this.position);
+            this.current.getBytes(this.position, bytes, offset, read);
+            this.position += read;
+            return read;
+        }
+
+        void releaseCurrent() {
+            if (this.current != null) {
+                this.current.release();
+                this.current = null;
+            }
+            this.position = 0;
+        }
+
+        private final FileInput fileInput;
+        private Buffer current;
+        private int position;
+    }
+
+    private static final int MAXIMUM_DEPTH = 1000;
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final char[] buffer;
+    private final Reader reader;
+    private final JsonKeyInterner keyInterner;
+
+    private int position;
+    private int limit;
+    private long consumedBeforeBuffer;
+
+    private String lastStringLiteral;
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.util.ArrayList;
+import org.embulk.spi.Column;
+import org.embulk.spi.PageReader;
+
+/**
+ * A compiled path to a JSON value nested in JSON objects and JSON arrays, such as {@code $.user.id} or {@code $.items[3]}.
+ *
+ * <p>The path is parsed once by {@link #compile(String)}, and then applied to many JSON values. It navigates the JSON value
+ * only through the JSON objects and the JSON arrays on the path, and stops as soon as a step is missing. It does not build
+ * any intermediate JSON value. A JSON value converted from MessagePack is converted only along the path.
+ *
+ * <p>The path consists of the root {@code $} followed by steps. The supported steps are:
+ *
+ * <ul>
+ * <li>{@code .name} : a member of a JSON object, whose name consists of letters, digits, {@code _}, {@code -}, and {@code $}
+ * <li>{@code ['name']} or {@code ["name"]} : a member of a JSON object, whose name can contain any character except for the quote
+ * <li>{@code [3]} : an element of a JSON array, from zero
+ * </ul>
+ *
+ * <p>Wildcards, filters, and slices are not supported. It is an immutable and thread-safe object.
+ *
+ * @since 0.11
+ */
+public final class JsonPath {
+    private JsonPath(final String path, final String[] names, final int[] indices) {
+        this.path = path;
+        this.names = names;
+        this.indices = indices;
+    }
+
+    /**
+     * Compiles the specified path expression.
+     *
+     * @param path  the path expression, not null
+     * @return the compiled path
+     * @throws NullPointerException  if the path expression is {@code null}
+     * @throws IllegalArgumentException  if the path expression is invalid
+     *
+     * @since 0.11
+     */
+    public static JsonPath compile(final String path) {
+        if (path == null) {
+            throw new NullPointerException("path is null.");
+        }
+        if (path.isEmpty() || path.charAt(0) != '$') {
+            throw new IllegalArgumentException("JSON path must start with '$': " + path);
+        }
+
+        final ArrayList<String> names = new ArrayList<>();
+        final ArrayList<Integer> indices = new ArrayList<>();
+        int position = 1;
+        while (position < path.length()) {
+            final char c = path.charAt(position);
+            if (c == '.') {
+                final int start = position + 1;
+                int end = start;
+                while (end < path.length() && isNameCharacter(path.charAt(end))) {
+                    end++;
+                }
+                if (end == start) {
+                    throw new IllegalArgumentException("JSON path has an empty name at " + start + ": " + path);
+                }
+                names.add(path.substring(start, end));
+                indices.add(-1);
+                position = end;
+            } else if (c == '[') {
+                final int start = position + 1;
+                if (start >= path.length()) {
+                    throw new IllegalArgumentException("JSON path has an unclosed bracket at " + position + ": " + path);
+                }
+                final char first = path.charAt(start);
+                if (first == '\'' || first == '"') {
+                    final int closing = path.indexOf(first, start + 1);
+                    if (closing < 0 || closing + 1 >= path.length() || path.charAt(closing + 1) != ']') {
+                        throw new IllegalArgumentException("JSON path has an unclosed bracket at " + position + ": " + path);
+                    }
+                    names.add(path.substring(start + 1, closing));
+                    indices.add(-1);
+                    position = closing + 2;
+                } else {
+                    int end = start;
+                    while (end < path.length() && path.charAt(end) >= '0' && path.charAt(end) <= '9') {
+                        end++;
+                    }
+                    if (end == start || end >= path.length() || path.charAt(end) != ']') {
+                        throw new IllegalArgumentException("JSON path has an invalid index at " + start + ": " + path);
+                    }
+                    final int index;
+                    try {
+                        index = Integer.parseInt(path.substring(start, end));
+                    } catch (final NumberFormatException ex) {
+                        throw new IllegalArgumentException("JSON path has a too large index at " + start + ": " + path, ex);
+                    }
+                    names.add(null);
+                    indices.add(index);
+                    position = end + 1;
+                }
+            } else {
+                throw new IllegalArgumentException("JSON path has an unexpected character at " + position + ": " + path);
+            }
+        }
+
+        final int[] indicesArray = new int[indices.size()];
+        for (int i = 0; i < indicesArray.length; i++) {
+            indicesArray[i] = indices.get(i);
+        }
+        return new JsonPath(path, names.toArray(new String[0]), indicesArray);
+    }
+
+    /**
+     * Extracts the JSON value at this path from the specified JSON value.
+     *
+     * <p>If a JSON object on the path contains duplicate keys, the value of the first occurrence of the key is followed.
+     *
+     * @param value  the JSON value to extract from, or {@code null}
+     * @return the JSON value at this path, or {@code null} if the specified JSON value is {@code null}, or if any step of
+     *     this path is missing, such as a missing key, an out-of-range index, or a non-container JSON value on the path
+     *
+     * @since 0.11
+     */
+    public JsonValue extract(final JsonValue value) {
+        JsonValue current = value;
+        for (int i = 0; i < this.names.length && current != null; i++) {
+            final String name = this.names[i];
+            if (name != null) {
+                if (!current.isJsonObject()) {
+                    return null;
+                }
+                current = current.asJsonObject().get(name);
+            } else {
+                if (!current.isJsonArray()) {
+                    return null;
+                }
+                final JsonArray array = current.asJsonArray();
+                final int index = this.indices[i];
+                if (index >= array.size()) {
+                    return null;
+                }
+                current = array.get(index);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Extracts the JSON value at this path from the JSON column of the current record of the specified {@link PageReader}.
+     *
+     * @param pageReader  the page reader pointing to a record, not null
+     * @param column  the JSON column, not null
+     * @return the JSON value at this path, or {@code null} if the column is null, or if any step of this path is missing
+     * @throws NullPointerException  if the page reader or the column is {@code null}
+     *
+     * @see #extract(JsonValue)
+     *
+     * @since 0.11
+     */
+    public JsonValue extract(final PageReader pageReader, final Column column) {
+        if (pageReader == null) {
+            throw new NullPointerException("pageReader is null.");
+        }
+        if (column == null) {
+            throw new NullPointerException("column is null.");
+        }
+        if (pageReader.isNull(column)) {
+            return null;
+        }
+        return this.extract(pageReader.getJsonValue(column));
+    }
+
+    /**
+     * Returns the path expression of this compiled path.
+     *
+     * @return the path expression
+     *
+     * @since 0.11
+     */
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    private static boolean isNameCharacter(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '$';
+    }
+
+    private final String path;
+
+    // A member name for each step, or null for an element index.
+    private final String[] names;
+
+    // An element index for each step, or -1 for a member name.
+    private final int[] indices;
+}
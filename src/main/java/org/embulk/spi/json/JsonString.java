@@ -16,6 +16,8 @@
 
 package org.embulk.spi.json;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 import org.msgpack.value.StringValue;
 import org.msgpack.value.Value;
@@ -37,11 +39,13 @@ public final class JsonString implements JsonValue {
         }
         this.value = new ImmutableStringValueImpl(value);
         this.literal = literal;
+        this.escapedCache = null;
     }
 
     private JsonString(final ImmutableStringValueImpl msgpackValue) {
         this.value = msgpackValue;
         this.literal = null;
+        this.escapedCache = null;
     }
 
     static JsonString fromMsgpack(final StringValue msgpackValue) {
@@ -158,6 +162,8 @@ public final class JsonString implements JsonValue {
      * <p>If this JSON string is created with a literal by {@link #withLiteral(String, String)}, it returns the literal. Otherwise,
      * it returns an escaped and quoted representation, which is valid as JSON, of this JSON string.
      *
+     * <p>The escaped representation is cached in this JSON string unless it is long.
+     *
      * @return the stringified JSON representation of this JSON string
      *
      * @since 0.10.42
@@ -167,7 +173,31 @@ public final class JsonString implements JsonValue {
         if (this.literal != null) {
             return this.literal;
         }
-        return escapeStringForJsonLiteral(this.value.asString());
+        return this.escaped();
+    }
+
+    /**
+     * Writes the stringified JSON representation of this JSON string into the specified {@link Appendable}.
+     *
+     * <p>It writes the same as {@link #toJson()} without building an intermediate {@link String}.
+     *
+     * @param appendable  the {@link Appendable} to write into, not null
+     * @throws IOException  if the {@link Appendable} throws {@link IOException}
+     *
+     * @since 0.11
+     */
+    @Override
+    public void writeJson(final Appendable appendable) throws IOException {
+        if (this.literal != null) {
+            appendable.append(this.literal);
+            return;
+        }
+        final String escaped = this.escapedCache;
+        if (escaped != null) {
+            appendable.append(escaped);
+            return;
+        }
+        appendEscapedStringForJsonLiteral(this.value.asString(), appendable);
     }
 
     /**
@@ -202,7 +232,7 @@ public final class JsonString implements JsonValue {
      */
     @Override
     public String toString() {
-        return escapeStringForJsonLiteral(this.value.asString());
+        return this.escaped();
     }
 
     /**
@@ -240,80 +270,91 @@ public final class JsonString implements JsonValue {
         return Objects.hashCode(this.value.asString());
     }
 
+    void accumulateRetainedSize(final RetainedSizeEstimator estimator) {
+        estimator.addObject(JsonString.class);
+        estimator.addMsgpack(this.value);
+        estimator.addString(this.literal);
+        estimator.addString(this.escapedCache);
+    }
+
+    private String escaped() {
+        final String cached = this.escapedCache;
+        if (cached != null) {
+            return cached;
+        }
+        final String escaped = escapeStringForJsonLiteral(this.value.asString());
+        if (escaped.length() <= MAXIMUM_CACHED_JSON_LENGTH) {
+            // Racy, but safe. String is immutable, and any of the strings escaped by threads is equal.
+            this.escapedCache = escaped;
+        }
+        return escaped;
+    }
+
     static void appendEscapedStringForJsonLiteral(final String original, final StringBuilder builder) {
+        try {
+            appendEscapedStringForJsonLiteral(original, (Appendable) builder);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("StringBuilder should never throw IOException.", ex);
+        }
+    }
+
+    static void appendEscapedStringForJsonLiteral(final String original, final Appendable appendable) throws IOException {
         if (original == null) {
             return;
         }
         if (original.isEmpty()) {
-            builder.append("\"\"");
+            appendable.append("\"\"");
             return;
         }
 
-        builder.append("\"");
+        appendable.append('"');
 
+        // Characters that do not need escaping are appended in runs, not one by one.
+        int unescapedFrom = 0;
         final int length = original.length();
         for (int i = 0; i < length; i++) {
             final char current = original.charAt(i);
+            if (current >= 0x20 && current != '\\' && current != '"') {
+                continue;
+            }
+            if (unescapedFrom < i) {
+                appendable.append(original, unescapedFrom, i);
+            }
+            unescapedFrom = i + 1;
+
             switch (current) {
                 case '\\':
-                    builder.append("\\\\");
+                    appendable.append("\\\\");
                     break;
                 case '"':
-                    builder.append("\\\"");
+                    appendable.append("\\\"");
                     break;
                 case '\b':  // 0008
-                    builder.append("\\b");
+                    appendable.append("\\b");
                     break;
                 case '\f':  // 000c
-                    builder.append("\\f");
+                    appendable.append("\\f");
                     break;
                 case '\n':  // 000a
-                    builder.append("\\n");
+                    appendable.append("\\n");
                     break;
                 case '\r':  // 000d
-                    builder.append("\\r");
+                    appendable.append("\\r");
                     break;
                 case '\t':  // 0009
-                    builder.append("\\t");
+                    appendable.append("\\t");
                     break;
-                case '\0':
-                case '\u0001':
-                case '\u0002':
-                case '\u0003':
-                case '\u0004':
-                case '\u0005':
-                case '\u0006':
-                case '\u0007':
-                case '\u000b':
-                case '\u000e':
-                case '\u000f':
-                case '\u0010':
-                case '\u0011':
-                case '\u0012':
-                case '\u0013':
-                case '\u0014':
-                case '\u0015':
-                case '\u0016':
-                case '\u0017':
-                case '\u0018':
-                case '\u0019':
-                case '\u001a':
-                case '\u001b':
-                case '\u001c':
-                case '\u001d':
-                case '\u001e':
-                case '\u001f':
-                    builder.append("\\u00");
-                    final String hex = Integer.toHexString(current);
-                    builder.append("00", 0, 2 - hex.length());
-                    builder.append(hex);
-                    break;
-                default:
-                    builder.append(current);
+                default:  // Other control characters from 0000 to 001f
+                    appendable.append("\\u00");
+                    appendable.append(HEX_DIGITS[current >> 4]);
+                    appendable.append(HEX_DIGITS[current & 0xf]);
             }
         }
+        if (unescapedFrom < length) {
+            appendable.append(original, unescapedFrom, length);
+        }
 
-        builder.append("\"");
+        appendable.append('"');
     }
 
     static String escapeStringForJsonLiteral(final String original) {
@@ -322,7 +363,14 @@ public final class JsonString implements JsonValue {
         return builder.toString();
     }
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Stringified JSON representations longer than this are not cached so that the cache would not bloat the memory.
+    static final int MAXIMUM_CACHED_JSON_LENGTH = 1024;
+
     private final ImmutableStringValueImpl value;
 
     private final String literal;
+
+    private String escapedCache;
 }
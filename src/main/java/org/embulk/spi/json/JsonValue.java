@@ -16,6 +16,10 @@
 
 package org.embulk.spi.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import org.embulk.spi.Buffer;
+import org.msgpack.core.MessagePacker;
 import org.msgpack.value.Value;
 
 /**
@@ -367,6 +371,25 @@ public interface JsonValue {
      */
     int presumeReferenceSizeInBytes();
 
+    /**
+     * Returns the estimated size of this JSON value in bytes retained in the Java heap.
+     *
+     * <p>Unlike {@link #presumeReferenceSizeInBytes()}, it tries to be accurate. It models the object layout of the 64-bit
+     * HotSpot JVM with compressed references, which is the default for heaps smaller than 32 GB. It counts the object headers,
+     * the arrays, the {@link String}s, the cached forms such as the MessagePack form and the stringified JSON representation,
+     * and the nested JSON values. An object shared in this JSON value, such as a key repeated in nested JSON objects, is
+     * counted only once. Singletons, such as {@link JsonNull#NULL} and {@link JsonBoolean#TRUE}, are not counted.
+     *
+     * <p>It walks through the entire JSON value. It is more expensive than {@link #presumeReferenceSizeInBytes()}.
+     *
+     * @return the estimated size of this JSON value in bytes retained in the Java heap
+     *
+     * @since 0.11
+     */
+    default long estimateRetainedSizeInBytes() {
+        return RetainedSizeEstimator.estimate(this);
+    }
+
     /**
      * Returns the stringified JSON representation of this JSON value.
      *
@@ -378,6 +401,55 @@ public interface JsonValue {
      */
     String toJson();
 
+    /**
+     * Writes the stringified JSON representation of this JSON value into the specified {@link Appendable}.
+     *
+     * <p>It writes the same as {@link #toJson()}. {@link JsonString}, {@link JsonArray}, and {@link JsonObject} write
+     * without building intermediate {@link String}s for themselves and their nested JSON values.
+     *
+     * @param appendable  the {@link Appendable} to write into, not null
+     * @throws IOException  if the {@link Appendable} throws {@link IOException}
+     *
+     * @since 0.11
+     */
+    default void writeJson(final Appendable appendable) throws IOException {
+        appendable.append(this.toJson());
+    }
+
+    /**
+     * Writes the stringified JSON representation of this JSON value into the specified {@link OutputStream} in UTF-8.
+     *
+     * <p>It writes the same as {@link #toJson()} encoded in UTF-8. It does not flush nor close the {@link OutputStream}.
+     *
+     * @param outputStream  the {@link OutputStream} to write into, not null
+     * @throws IOException  if the {@link OutputStream} throws {@link IOException}
+     *
+     * @since 0.11
+     */
+    default void writeJson(final OutputStream outputStream) throws IOException {
+        final Utf8Appender appender = new Utf8Appender(outputStream);
+        this.writeJson(appender);
+        appender.flush();
+    }
+
+    /**
+     * Appends the stringified JSON representation of this JSON value in UTF-8 into the specified {@link Buffer} after its limit.
+     *
+     * <p>It writes the same as {@link #toJson()} encoded in UTF-8. The limit of the {@link Buffer} is advanced by the number
+     * of bytes written. If the JSON representation does not fit in the capacity of the {@link Buffer}, it throws
+     * {@link java.nio.BufferOverflowException}. In that case, the limit is not changed, but the content after the limit may be
+     * overwritten.
+     *
+     * @param buffer  the {@link Buffer} to append into, not null
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException  if the JSON representation does not fit in the {@link Buffer}
+     *
+     * @since 0.11
+     */
+    default int writeJson(final Buffer buffer) {
+        return BufferOutputStream.writeJson(this, buffer);
+    }
+
     /**
      * Returns the corresponding MessagePack's value object of this JSON value.
      *
@@ -394,9 +466,84 @@ public interface JsonValue {
     @Deprecated
     Value toMsgpack();
 
+    /**
+     * Writes the MessagePack representation of this JSON value into the specified {@link MessagePacker}.
+     *
+     * <p>It writes the same as {@code toMsgpack().writeTo(packer)}, but it does not build MessagePack's value objects unless
+     * they are already cached in this JSON value.
+     *
+     * @param packer  the {@link MessagePacker} to write into, not null
+     * @throws IOException  if the {@link MessagePacker} throws {@link IOException}
+     *
+     * @see <a href="https://github.com/embulk/embulk/pull/1538">Draft EEP: JSON Column Type</a>
+     *
+     * @deprecated Do not use this method. It is to be removed at some point after Embulk v1.0.0.
+     *     It is here only to ensure a migration period from MessagePack-based JSON values to new
+     *     JSON values of {@link JsonValue}.
+     *
+     * @since 0.11
+     */
+    @Deprecated
+    default void writeMsgpack(final MessagePacker packer) throws IOException {
+        this.toMsgpack().writeTo(packer);
+    }
+
+    /**
+     * Appends the MessagePack representation of this JSON value into the specified {@link Buffer} after its limit.
+     *
+     * <p>The limit of the {@link Buffer} is advanced by the number of bytes written. If the MessagePack representation does
+     * not fit in the capacity of the {@link Buffer}, it throws {@link java.nio.BufferOverflowException}. In that case, the limit
+     * is not changed, but the content after the limit may be overwritten.
+     *
+     * @param buffer  the {@link Buffer} to append into, not null
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException  if the MessagePack representation does not fit in the {@link Buffer}
+     *
+     * @since 0.11
+     */
+    default int writeMsgpack(final Buffer buffer) {
+        return BufferMessageBufferOutput.pack(this, buffer);
+    }
+
+    /**
+     * Parses a JSON text into a {@link JsonValue}.
+     *
+     * @param json  the JSON text, not null
+     * @return the parsed {@link JsonValue}
+     * @throws JsonParseException  if the text is not a single valid JSON value
+     *
+     * @see JsonParser#parse(CharSequence)
+     *
+     * @since 0.11
+     */
+    public static JsonValue parse(final CharSequence json) {
+        return JsonParser.parse(json);
+    }
+
+    /**
+     * Parses a JSON text encoded in UTF-8 into a {@link JsonValue}.
+     *
+     * @param utf8  the byte array containing the JSON text encoded in UTF-8, not null
+     * @param offset  the offset of the JSON text in the byte array
+     * @param length  the length of the JSON text in bytes
+     * @return the parsed {@link JsonValue}
+     * @throws JsonParseException  if the text is not a single valid JSON value, or is not valid UTF-8
+     *
+     * @see JsonParser#parse(byte[], int, int)
+     *
+     * @since 0.11
+     */
+    public static JsonValue parse(final byte[] utf8, final int offset, final int length) {
+        return JsonParser.parse(utf8, offset, length);
+    }
+
     /**
      * Returns a new JSON value based on the specified MessagePack's value.
      *
+     * <p>Elements of a MessagePack's Array, and values of a MessagePack's Map, are converted lazily when they are accessed
+     * for the first time. The types of the nested values are still checked here, so that an unsupported MessagePack's type
+     * nested in them is reported by this method.
+     *
      * @param msgpackValue  the MessagePack's value
      * @return the new JSON value
      *
@@ -410,34 +557,29 @@ public interface JsonValue {
      */
     @Deprecated
     public static JsonValue fromMsgpack(final Value msgpackValue) {
+        return fromMsgpack(msgpackValue, null);
+    }
+
+    /**
+     * Returns a new JSON value based on the specified MessagePack's value, with interning keys of nested JSON objects.
+     *
+     * @param msgpackValue  the MessagePack's value
+     * @param keyInterner  the {@link JsonKeyInterner} to intern keys of JSON objects, or {@code null} not to intern
+     * @return the new JSON value
+     *
+     * @see #fromMsgpack(Value)
+     *
+     * @deprecated Do not use this method. It is to be removed at some point after Embulk v1.0.0.
+     *     It is here only to ensure a migration period from MessagePack-based JSON values to new
+     *     JSON values of {@link JsonValue}.
+     *
+     * @since 0.11
+     */
+    @Deprecated
+    public static JsonValue fromMsgpack(final Value msgpackValue, final JsonKeyInterner keyInterner) {
         if (msgpackValue == null) {
             throw new NullPointerException("msgpackValue is null.");
         }
-
-        switch (msgpackValue.getValueType()) {
-            case NIL:
-                return JsonNull.NULL;
-            case BOOLEAN:
-                if (msgpackValue.asBooleanValue().getBoolean()) {
-                    return JsonBoolean.TRUE;
-                }
-                return JsonBoolean.FALSE;
-            case INTEGER:
-                return JsonLong.fromMsgpack(msgpackValue.asIntegerValue());
-            case FLOAT:
-                return JsonDouble.fromMsgpack(msgpackValue.asFloatValue());
-            case STRING:
-                return JsonString.fromMsgpack(msgpackValue.asStringValue());
-            case BINARY:
-                throw new IllegalArgumentException("MessagePack's Binary type is not supported.");
-            case ARRAY:
-                return JsonArray.fromMsgpack(msgpackValue.asArrayValue());
-            case MAP:
-                return JsonObject.fromMsgpack(msgpackValue.asMapValue());
-            case EXTENSION:
-                throw new IllegalArgumentException("MessagePack's Extension type is not supported.");
-            default:
-                throw new IllegalArgumentException("MessagePack's type is unknown.");
-        }
+        return MsgpackConversion.convert(msgpackValue, keyInterner, true);
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import org.msgpack.value.ArrayValue;
+import org.msgpack.value.Value;
+import org.msgpack.value.impl.ImmutableArrayValueImpl;
+import org.msgpack.value.impl.ImmutableBooleanValueImpl;
+import org.msgpack.value.impl.ImmutableDoubleValueImpl;
+import org.msgpack.value.impl.ImmutableLongValueImpl;
+import org.msgpack.value.impl.ImmutableNilValueImpl;
+import org.msgpack.value.impl.ImmutableStringValueImpl;
+
+/**
+ * Converts MessagePack's values into {@link JsonValue}s.
+ *
+ * <p>{@link JsonArray} and {@link JsonObject} converted from MessagePack convert their nested values lazily. The types of
+ * the nested values are still checked eagerly when the outermost value is converted, so that an unsupported type fails
+ * there, not later when the nested value is accessed.
+ */
+final class MsgpackConversion {
+    private MsgpackConversion() {
+        // No instantiation.
+    }
+
+    /**
+     * Converts a MessagePack's value into a {@link JsonValue}.
+     *
+     * @param checkNested  {@code true} to check the types of the values nested in it, or {@code false} if they are checked already
+     */
+    @SuppressWarnings("deprecation")  // To call deprecated fromMsgpack of each JsonValue implementation.
+    static JsonValue convert(final Value msgpackValue, final JsonKeyInterner keyInterner, final boolean checkNested) {
+        switch (msgpackValue.getValueType()) {
+            case NIL:
+                return JsonNull.NULL;
+            case BOOLEAN:
+                if (msgpackValue.asBooleanValue().getBoolean()) {
+                    return JsonBoolean.TRUE;
+                }
+                return JsonBoolean.FALSE;
+            case INTEGER:
+                return JsonLong.fromMsgpack(msgpackValue.asIntegerValue());
+            case FLOAT:
+                return JsonDouble.fromMsgpack(msgpackValue.asFloatValue());
+            case STRING:
+                return JsonString.fromMsgpack(msgpackValue.asStringValue());
+            case BINARY:
+                throw new IllegalArgumentException("MessagePack's Binary type is not supported.");
+            case ARRAY:
+                return JsonArray.fromMsgpack(msgpackValue.asArrayValue(), keyInterner, checkNested);
+            case MAP:
+                return JsonObject.fromMsgpack(msgpackValue.asMapValue(), keyInterner, checkNested);
+            case EXTENSION:
+                throw new IllegalArgumentException("MessagePack's Extension type is not supported.");
+            default:
+                throw new IllegalArgumentException("MessagePack's type is unknown.");
+        }
+    }
+
+    /**
+     * Checks that a MessagePack's value, and all the values nested in it, can be converted into {@link JsonValue}s.
+     *
+     * <p>It only reads the types of the values, except for copying the key-value arrays of nested MessagePack's Maps.
+     */
+    static void check(final Value msgpackValue) {
+        // Values in MessagePack's Arrays and Maps read from Pages are of these classes. Checking the classes first avoids
+        // megamorphic calls of Value's methods, which would make this check slower than the lazy conversion itself.
+        final Class<?> type = msgpackValue.getClass();
+        if (type == ImmutableStringValueImpl.class
+                || type == ImmutableLongValueImpl.class
+                || type == ImmutableDoubleValueImpl.class
+                || type == ImmutableNilValueImpl.class
+                || type == ImmutableBooleanValueImpl.class) {
+            return;
+        }
+        if (type == ImmutableArrayValueImpl.class) {
+            final ImmutableArrayValueImpl array = (ImmutableArrayValueImpl) msgpackValue;
+            final int size = array.size();
+            for (int i = 0; i < size; i++) {
+                check(array.get(i));
+            }
+            return;
+        }
+
+        switch (msgpackValue.getValueType()) {
+            case NIL:
+            case BOOLEAN:
+            case FLOAT:
+            case STRING:
+                return;
+            case INTEGER:
+                if (!msgpackValue.asIntegerValue().isInLongRange()) {
+                    throw new IllegalArgumentException("MessagePack integer is out of the range of long: " + msgpackValue);
+                }
+                return;
+            case BINARY:
+                throw new IllegalArgumentException("MessagePack's Binary type is not supported.");
+            case ARRAY:
+                final ArrayValue array = msgpackValue.asArrayValue();
+                for (int i = 0; i < array.size(); i++) {
+                    check(array.get(i));
+                }
+                return;
+            case MAP:
+                final Value[] mapKeyValues = msgpackValue.asMapValue().getKeyValueArray();
+                for (int i = 0; i < mapKeyValues.length; i += 2) {
+                    if (!mapKeyValues[i].isStringValue()) {
+                        throw new IllegalArgumentException("MessagePack's Map has a non-String key.");
+                    }
+                    check(mapKeyValues[i + 1]);
+                }
+                return;
+            case EXTENSION:
+                throw new IllegalArgumentException("MessagePack's Extension type is not supported.");
+            default:
+                throw new IllegalArgumentException("MessagePack's type is unknown.");
+        }
+    }
+
+    /**
+     * Returns the same as {@link JsonValue#presumeReferenceSizeInBytes()} of the {@link JsonValue} to be converted from
+     * a MessagePack's value, without converting it.
+     */
+    static int presumeReferenceSizeInBytes(final Value msgpackValue) {
+        switch (msgpackValue.getValueType()) {
+            case NIL:
+            case BOOLEAN:
+                return 1;
+            case INTEGER:
+            case FLOAT:
+                return 8;
+            case STRING:
+                // The decoded String is cached in the MessagePack's value, and shared with JsonString converted later.
+                return msgpackValue.asStringValue().asString().length() * 2 + 4;
+            case ARRAY:
+                final ArrayValue array = msgpackValue.asArrayValue();
+                int arraySum = 4;
+                for (int i = 0; i < array.size(); i++) {
+                    arraySum += presumeReferenceSizeInBytes(array.get(i));
+                }
+                return arraySum;
+            case MAP:
+                final Value[] keyValues = msgpackValue.asMapValue().getKeyValueArray();
+                int mapSum = 4;
+                for (int i = 0; i < keyValues.length; i += 2) {
+                    mapSum += keyValues[i].asStringValue().asString().length() * 2 + 4;
+                    mapSum += presumeReferenceSizeInBytes(keyValues[i + 1]);
+                }
+                return mapSum;
+            default:
+                // Unsupported types are rejected by #check(Value) before.
+                throw new IllegalArgumentException("MessagePack's type is not supported.");
+        }
+    }
+}
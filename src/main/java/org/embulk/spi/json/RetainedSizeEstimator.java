@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.msgpack.value.Value;
+import org.msgpack.value.impl.ImmutableArrayValueImpl;
+import org.msgpack.value.impl.ImmutableBigIntegerValueImpl;
+import org.msgpack.value.impl.ImmutableDoubleValueImpl;
+import org.msgpack.value.impl.ImmutableLongValueImpl;
+import org.msgpack.value.impl.ImmutableMapValueImpl;
+
+/**
+ * Estimates the retained size of a {@link JsonValue} tree in the Java heap.
+ *
+ * <p>It models the object layout of the 64-bit HotSpot JVM with compressed references, which is the default for heaps
+ * smaller than 32 GB: a 12-byte object header, a 16-byte array header, 4-byte references, and 8-byte alignment.
+ * {@link String} is modeled with {@code char[]} on Java 8, and with compact {@code byte[]} on Java 9 and later.
+ *
+ * <p>Each object reachable from the tree is counted only once in an estimation, such as a {@link String} key repeated in
+ * JSON objects in the tree, or a MessagePack value shared between a {@link JsonValue} and its cached MessagePack form.
+ * Singletons, such as {@link JsonNull#NULL}, {@link JsonBoolean#TRUE}, and empty JSON objects, are not counted.
+ */
+final class RetainedSizeEstimator {
+    private RetainedSizeEstimator() {
+        this.visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.size = 0;
+    }
+
+    static long estimate(final JsonValue value) {
+        final RetainedSizeEstimator estimator = new RetainedSizeEstimator();
+        estimator.add(value);
+        return estimator.size;
+    }
+
+    void add(final JsonValue value) {
+        if (value == null
+                || value instanceof JsonNull
+                || value instanceof JsonBoolean
+                || value == JsonObject.of()
+                || value == JsonArray.of()) {
+            return;
+        }
+        if (!this.visited.add(value)) {
+            return;
+        }
+
+        if (value instanceof JsonObject) {
+            ((JsonObject) value).accumulateRetainedSize(this);
+        } else if (value instanceof JsonArray) {
+            ((JsonArray) value).accumulateRetainedSize(this);
+        } else if (value instanceof JsonString) {
+            ((JsonString) value).accumulateRetainedSize(this);
+        } else if (value instanceof JsonLong) {
+            ((JsonLong) value).accumulateRetainedSize(this);
+        } else if (value instanceof JsonDouble) {
+            ((JsonDouble) value).accumulateRetainedSize(this);
+        } else {
+            // An unknown implementation of JsonValue.
+            this.size += value.presumeReferenceSizeInBytes();
+        }
+    }
+
+    /**
+     * Adds an object with the specified number of references and the specified bytes of primitive fields.
+     */
+    void addObject(final int references, final int primitiveBytes) {
+        this.size += align(OBJECT_HEADER_SIZE + references * REFERENCE_SIZE + primitiveBytes);
+    }
+
+    /**
+     * Adds an object of the specified class, with the instance fields declared in the class and all its superclasses.
+     */
+    void addObject(final Class<?> type) {
+        this.size += SHALLOW_SIZES.get(type);
+    }
+
+    void addReferenceArray(final Object[] array) {
+        if (array == null || !this.visited.add(array)) {
+            return;
+        }
+        this.size += align(ARRAY_HEADER_SIZE + (long) array.length * REFERENCE_SIZE);
+    }
+
+    void addIntArray(final int[] array) {
+        if (array == null || !this.visited.add(array)) {
+            return;
+        }
+        this.size += align(ARRAY_HEADER_SIZE + (long) array.length * 4);
+    }
+
+    void addString(final String string) {
+        if (string == null || !this.visited.add(string)) {
+            return;
+        }
+        int bytesPerCharacter = 1;
+        if (!COMPACT_STRINGS) {
+            bytesPerCharacter = 2;
+        } else {
+            for (int i = 0; i < string.length(); i++) {
+                if (string.charAt(i) > 0xff) {
+                    bytesPerCharacter = 2;
+                    break;
+                }
+            }
+        }
+        this.size += STRING_SHALLOW_SIZE + align(ARRAY_HEADER_SIZE + (long) string.length() * bytesPerCharacter);
+    }
+
+    void addMsgpack(final Value value) {
+        // Nil and Boolean are singletons.
+        if (value == null || value.isNilValue() || value.isBooleanValue() || !this.visited.add(value)) {
+            return;
+        }
+
+        if (value instanceof ImmutableLongValueImpl || value instanceof ImmutableDoubleValueImpl) {
+            this.addObject(0, 8);
+        } else if (value instanceof ImmutableBigIntegerValueImpl) {
+            this.addObject(1, 0);
+            // BigInteger has an int[] and five ints.
+            final int words = (value.asIntegerValue().asBigInteger().bitLength() >> 5) + 1;
+            this.size += align(OBJECT_HEADER_SIZE + REFERENCE_SIZE + 5 * 4) + align(ARRAY_HEADER_SIZE + words * 4);
+        } else if (value.isRawValue()) {
+            // It has a byte[], and the decoded String cache, and an exception cache.
+            this.addObject(3, 0);
+            final int length = value.asRawValue().asByteBuffer().remaining();
+            this.size += align(ARRAY_HEADER_SIZE + length);
+            if (value.isStringValue()) {
+                // The decoded String is not visible without decoding it. Assume it is decoded, and in ASCII.
+                this.size += STRING_SHALLOW_SIZE + align(ARRAY_HEADER_SIZE + (long) length * (COMPACT_STRINGS ? 1 : 2));
+            }
+        } else if (value instanceof ImmutableArrayValueImpl) {
+            final ImmutableArrayValueImpl array = (ImmutableArrayValueImpl) value;
+            this.addObject(1, 0);
+            this.size += align(ARRAY_HEADER_SIZE + (long) array.size() * REFERENCE_SIZE);
+            for (int i = 0; i < array.size(); i++) {
+                this.addMsgpack(array.get(i));
+            }
+        } else if (value instanceof ImmutableMapValueImpl) {
+            final Value[] keyValues = ((ImmutableMapValueImpl) value).getKeyValueArray();
+            this.addObject(1, 0);
+            this.size += align(ARRAY_HEADER_SIZE + (long) keyValues.length * REFERENCE_SIZE);
+            for (final Value keyOrValue : keyValues) {
+                this.addMsgpack(keyOrValue);
+            }
+        } else if (value.isExtensionValue()) {
+            this.addObject(1, 1);
+            this.size += align(ARRAY_HEADER_SIZE + value.asExtensionValue().getData().length);
+        }
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + OBJECT_ALIGNMENT - 1) & ~(OBJECT_ALIGNMENT - 1);
+    }
+
+    static long shallowSizeOf(final Class<?> type) {
+        long bytes = OBJECT_HEADER_SIZE;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    bytes += fieldSizeOf(field.getType());
+                }
+            }
+        }
+        return align(bytes);
+    }
+
+    private static int fieldSizeOf(final Class<?> fieldType) {
+        if (fieldType == long.class || fieldType == double.class) {
+            return 8;
+        } else if (fieldType == int.class || fieldType == float.class) {
+            return 4;
+        } else if (fieldType == short.class || fieldType == char.class) {
+            return 2;
+        } else if (fieldType == byte.class || fieldType == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_SIZE;
+    }
+
+    private static boolean isCompactStringsAvailable() {
+        final String version = System.getProperty("java.specification.version", "");
+        return !version.startsWith("1.");
+    }
+
+    static final int OBJECT_HEADER_SIZE = 12;
+    static final int ARRAY_HEADER_SIZE = 16;
+    static final int REFERENCE_SIZE = 4;
+    static final int OBJECT_ALIGNMENT = 8;
+
+    private static final boolean COMPACT_STRINGS = isCompactStringsAvailable();
+
+    // Inherited fields count, such as keySet and values of AbstractMap, and modCount of AbstractList.
+    private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<Long>() {
+            @Override
+            protected Long computeValue(final Class<?> type) {
+                return shallowSizeOf(type);
+            }
+        };
+
+    // String has a reference to its array, and an int hash, and a byte coder on Java 9 and later.
+    private static final long STRING_SHALLOW_SIZE = align(OBJECT_HEADER_SIZE + REFERENCE_SIZE + 4 + (COMPACT_STRINGS ? 2 : 0));
+
+    private final Set<Object> visited;
+
+    private long size;
+}
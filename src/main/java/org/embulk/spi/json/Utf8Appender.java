@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link Appendable} that encodes characters into UTF-8, and writes them into an {@link OutputStream} through a small buffer.
+ *
+ * <p>It is lighter than {@link java.io.OutputStreamWriter} as it does not need a {@link java.nio.charset.CharsetEncoder}.
+ * An unpaired surrogate is encoded as {@code '?'}, as {@link String#getBytes(java.nio.charset.Charset)} does.
+ */
+final class Utf8Appender implements Appendable {
+    Utf8Appender(final OutputStream outputStream) {
+        if (outputStream == null) {
+            throw new NullPointerException("outputStream is null.");
+        }
+        this.outputStream = outputStream;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.position = 0;
+        this.highSurrogate = 0;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        if (csq == null) {
+            return this.append("null", 0, 4);
+        }
+        return this.append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        if (csq == null) {
+            return this.append("null", start, end);
+        }
+        for (int i = start; i < end; i++) {
+            this.append(csq.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        if (this.position + 4 > this.buffer.length) {
+            this.flushBuffer();
+        }
+
+        if (this.highSurrogate != 0) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                this.buffer[this.position++] = (byte) (0xf0 | (codePoint >> 18));
+                this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                this.buffer[this.position++] = (byte) (0x80 | (codePoint & 0x3f));
+                return this;
+            }
+            this.buffer[this.position++] = '?';
+            return this.append(c);
+        }
+
+        if (c < 0x80) {
+            this.buffer[this.position++] = (byte) c;
+        } else if (c < 0x800) {
+            this.buffer[this.position++] = (byte) (0xc0 | (c >> 6));
+            this.buffer[this.position++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            this.buffer[this.position++] = '?';
+        } else {
+            this.buffer[this.position++] = (byte) (0xe0 | (c >> 12));
+            this.buffer[this.position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            this.buffer[this.position++] = (byte) (0x80 | (c & 0x3f));
+        }
+        return this;
+    }
+
+    /**
+     * Writes the buffered bytes into the {@link OutputStream}, without flushing the {@link OutputStream} itself.
+     */
+    void flush() throws IOException {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+            if (this.position + 1 > this.buffer.length) {
+                this.flushBuffer();
+            }
+            this.buffer[this.position++] = '?';
+        }
+        this.flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.position > 0) {
+            this.outputStream.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final OutputStream outputStream;
+    private final byte[] buffer;
+
+    private int position;
+    private char highSurrogate;
+}
@@ -30,4 +30,12 @@ public class BooleanType extends AbstractType {
     private BooleanType() {
         super("boolean", boolean.class, 1);
     }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Kind getKind() {
+        return Kind.BOOLEAN;
+    }
 }
@@ -30,4 +30,12 @@ public class DoubleType extends AbstractType {
     private DoubleType() {
         super("double", double.class, 8);
     }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Kind getKind() {
+        return Kind.DOUBLE;
+    }
 }
@@ -32,4 +32,12 @@ public class JsonType extends AbstractType {
     private JsonType() {
         super("json", Value.class, 4);
     }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Kind getKind() {
+        return Kind.JSON;
+    }
 }
@@ -30,4 +30,12 @@ public class LongType extends AbstractType {
     private LongType() {
         super("long", long.class, 8);
     }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Kind getKind() {
+        return Kind.LONG;
+    }
 }
@@ -30,4 +30,12 @@ public class StringType extends AbstractType {
     private StringType() {
         super("string", String.class, 4);
     }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Kind getKind() {
+        return Kind.STRING;
+    }
 }
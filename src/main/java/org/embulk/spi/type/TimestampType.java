@@ -61,4 +61,12 @@ public class TimestampType extends AbstractType {
             return format;
         }
     }
+
+    /**
+     * @since 0.11
+     */
+    @Override
+    public Kind getKind() {
+        return Kind.TIMESTAMP;
+    }
 }
@@ -22,6 +22,58 @@ package org.embulk.spi.type;
  * @since 0.4.0
  */
 public interface Type {
+    /**
+     * A kind of Embulk's data type, which corresponds to one of the built-in type classes.
+     *
+     * <p>It is for dispatching on a type by {@code switch} instead of a chain of {@code instanceof}.
+     *
+     * @since 0.11
+     */
+    public static enum Kind {
+        /**
+         * The kind of Embulk's BOOLEAN, which is {@link BooleanType}.
+         *
+         * @since 0.11
+         */
+        BOOLEAN,
+
+        /**
+         * The kind of Embulk's LONG, which is {@link LongType}.
+         *
+         * @since 0.11
+         */
+        LONG,
+
+        /**
+         * The kind of Embulk's DOUBLE, which is {@link DoubleType}.
+         *
+         * @since 0.11
+         */
+        DOUBLE,
+
+        /**
+         * The kind of Embulk's STRING, which is {@link StringType}.
+         *
+         * @since 0.11
+         */
+        STRING,
+
+        /**
+         * The kind of Embulk's TIMESTAMP, which is {@link TimestampType}.
+         *
+         * @since 0.11
+         */
+        TIMESTAMP,
+
+        /**
+         * The kind of Embulk's JSON, which is {@link JsonType}.
+         *
+         * @since 0.11
+         */
+        JSON,
+        ;
+    }
+
     /**
      * Returns the name of the Embulk data type.
      *
@@ -54,4 +106,18 @@ public interface Type {
      */
     @Deprecated
     byte getFixedStorageSize();
+
+    /**
+     * Returns the kind of the Embulk data type.
+     *
+     * <p>The built-in type classes override it to return their constant kind.
+     *
+     * @return the kind of the Embulk data type, or {@code null} if it is not one of the built-in types
+     *
+     * @since 0.11
+     */
+    default Kind getKind() {
+        // Every built-in type class overrides it, and they cannot be extended.
+        return null;
+    }
 }
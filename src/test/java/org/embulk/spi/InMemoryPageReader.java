@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi;
+
+import java.time.Instant;
+import org.embulk.spi.json.JsonValue;
+
+/**
+ * A {@link PageReader} over in-memory records, which does not override
+ * {@link PageReader#readColumnBatch(Page)} nor {@link PageReader#forEachRecord(RecordHandler)}.
+ *
+ * <p>Each record is an array of the values of the columns, where {@code null} is a null value.
+ */
+final class InMemoryPageReader extends PageReader {
+    InMemoryPageReader(final Schema schema, final Object[][] records) {
+        super();
+        this.schema = schema;
+        this.records = records;
+        this.current = -1;
+    }
+
+    @Override
+    public Schema getSchema() {
+        return this.schema;
+    }
+
+    @Override
+    public boolean nextRecord() {
+        if (this.current + 1 >= this.records.length) {
+            this.current = this.records.length;
+            return false;
+        }
+        this.current++;
+        return true;
+    }
+
+    @Override
+    public boolean isNull(final int columnIndex) {
+        return this.records[this.current][columnIndex] == null;
+    }
+
+    @Override
+    public boolean getBoolean(final int columnIndex) {
+        return (Boolean) this.records[this.current][columnIndex];
+    }
+
+    @Override
+    public long getLong(final int columnIndex) {
+        return (Long) this.records[this.current][columnIndex];
+    }
+
+    @Override
+    public double getDouble(final int columnIndex) {
+        return (Double) this.records[this.current][columnIndex];
+    }
+
+    @Override
+    public String getString(final int columnIndex) {
+        return (String) this.records[this.current][columnIndex];
+    }
+
+    @Override
+    public Instant getTimestampInstant(final int columnIndex) {
+        return (Instant) this.records[this.current][columnIndex];
+    }
+
+    @Override
+    public JsonValue getJsonValue(final int columnIndex) {
+        return (JsonValue) this.records[this.current][columnIndex];
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private final Schema schema;
+    private final Object[][] records;
+
+    private int current;
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.embulk.spi.json.JsonLong;
+import org.embulk.spi.json.JsonString;
+import org.embulk.spi.json.JsonValue;
+import org.embulk.spi.type.Types;
+import org.junit.jupiter.api.Test;
+
+public class TestColumnBatch {
+    @Test
+    public void testBuild() {
+        final Schema schema = Schema.builder()
+                .add("id", Types.LONG)
+                .add("score", Types.DOUBLE)
+                .add("name", Types.STRING)
+                .build();
+        final long[] ids = new long[] { 1L, 2L, 3L };
+        final String[] names = new String[] { "foo", null, "baz" };
+        final ColumnBatch batch = ColumnBatch.builder(schema, 3)
+                .setLongs(schema.getColumn(0), ids, new long[] { 0b010L })
+                .setStrings(schema.getColumn(2), names, null)
+                .build();
+
+        assertEquals(schema, batch.getSchema());
+        assertEquals(3, batch.getRecordCount());
+
+        assertSame(ids, batch.getLongs(schema.getColumn(0)));
+        assertFalse(batch.isNull(schema.getColumn(0), 0));
+        assertTrue(batch.isNull(schema.getColumn(0), 1));
+        assertFalse(batch.isNull(schema.getColumn(0), 2));
+
+        // A column not configured is filled with null.
+        assertEquals(3, batch.getDoubles(schema.getColumn(1)).length);
+        assertTrue(batch.isNull(schema.getColumn(1), 0));
+        assertTrue(batch.isNull(schema.getColumn(1), 2));
+
+        assertArrayEquals(names, batch.getStrings(schema.getColumn(2)));
+        assertFalse(batch.isNull(schema.getColumn(2), 0));
+        // A null element is null even if it is not set in the null bitmap.
+        assertTrue(batch.isNull(schema.getColumn(2), 1));
+        assertFalse(batch.isNull(schema.getColumn(2), 2));
+
+        // The null bitmap given is not modified.
+        final long[] nullBitmap = new long[] { 0L };
+        final ColumnBatch batch2 = ColumnBatch.builder(schema, 3).setStrings(schema.getColumn(2), names, nullBitmap).build();
+        assertTrue(batch2.isNull(schema.getColumn(2), 1));
+        assertEquals(0L, nullBitmap[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> batch.getDoubles(schema.getColumn(0)));
+        assertThrows(IllegalArgumentException.class, () -> batch.getLongs(schema.getColumn(2)));
+    }
+
+    @Test
+    public void testBuildInvalid() {
+        final Schema schema = Schema.builder().add("id", Types.LONG).build();
+        assertThrows(IllegalArgumentException.class, () -> ColumnBatch.builder(schema, 3)
+                .setDoubles(schema.getColumn(0), new double[3], null));
+        assertThrows(IllegalArgumentException.class, () -> ColumnBatch.builder(schema, 3)
+                .setLongs(schema.getColumn(0), new long[2], null));
+        assertThrows(IllegalArgumentException.class, () -> ColumnBatch.builder(schema, 65)
+                .setLongs(schema.getColumn(0), new long[65], new long[1]));
+        assertThrows(NullPointerException.class, () -> ColumnBatch.builder(schema, 3)
+                .setLongs(schema.getColumn(0), null, null));
+    }
+
+    @Test
+    public void testReadFrom() {
+        final Schema schema = Schema.builder()
+                .add("boolean", Types.BOOLEAN)
+                .add("long", Types.LONG)
+                .add("double", Types.DOUBLE)
+                .add("string", Types.STRING)
+                .add("timestamp", Types.TIMESTAMP)
+                .add("json", Types.JSON)
+                .build();
+        final PageReader reader = new InMemoryPageReader(schema, new Object[][] {
+                { true, 42L, 1.5, "foo", Instant.ofEpochSecond(1, 2), JsonLong.of(3) },
+                { null, null, null, null, null, null },
+                { false, -1L, -0.5, "", Instant.EPOCH, JsonString.of("bar") },
+        });
+
+        final ColumnBatch batch = ColumnBatch.readFrom(reader, 3);
+        assertEquals(schema, batch.getSchema());
+        assertEquals(3, batch.getRecordCount());
+        for (final Column column : schema.getColumns()) {
+            assertFalse(batch.isNull(column, 0));
+            assertTrue(batch.isNull(column, 1));
+            assertFalse(batch.isNull(column, 2));
+        }
+        assertTrue(batch.getBooleans(schema.getColumn(0))[0]);
+        assertFalse(batch.getBooleans(schema.getColumn(0))[2]);
+        assertArrayEquals(new long[] { 42L, 0L, -1L }, batch.getLongs(schema.getColumn(1)));
+        assertArrayEquals(new double[] { 1.5, 0.0, -0.5 }, batch.getDoubles(schema.getColumn(2)));
+        assertArrayEquals(new String[] { "foo", null, "" }, batch.getStrings(schema.getColumn(3)));
+        assertArrayEquals(new Instant[] { Instant.ofEpochSecond(1, 2), null, Instant.EPOCH },
+                          batch.getTimestampInstants(schema.getColumn(4)));
+        assertArrayEquals(new JsonValue[] { JsonLong.of(3), null, JsonString.of("bar") }, batch.getJsonValues(schema.getColumn(5)));
+
+        // The cursor is at the end.
+        assertEquals(0, ColumnBatch.readFrom(reader, 3).getRecordCount());
+    }
+
+    @Test
+    public void testWriteTo() {
+        final Schema schema = Schema.builder()
+                .add("boolean", Types.BOOLEAN)
+                .add("long", Types.LONG)
+                .add("double", Types.DOUBLE)
+                .add("string", Types.STRING)
+                .add("timestamp", Types.TIMESTAMP)
+                .add("json", Types.JSON)
+                .build();
+        final ColumnBatch batch = ColumnBatch.builder(schema, 3)
+                .setBooleans(schema.getColumn(0), new boolean[] { true, false, false }, new long[] { 0b010L })
+                .setLongs(schema.getColumn(1), new long[] { 42L, 0L, -1L }, new long[] { 0b010L })
+                .setDoubles(schema.getColumn(2), new double[] { 1.5, 0.0, -0.5 }, new long[] { 0b010L })
+                .setStrings(schema.getColumn(3), new String[] { "foo", null, "" }, null)
+                .setTimestampInstants(schema.getColumn(4), new Instant[] { Instant.ofEpochSecond(1, 2), null, Instant.EPOCH }, null)
+                .setJsonValues(schema.getColumn(5), new JsonValue[] { JsonLong.of(3), null, JsonString.of("bar") }, null)
+                .build();
+
+        final RecordingPageBuilder builder = new RecordingPageBuilder(schema);
+        builder.addColumnBatch(batch);
+        assertEquals(Arrays.asList(
+                             Arrays.asList(true, 42L, 1.5, "foo", Instant.ofEpochSecond(1, 2), JsonLong.of(3)),
+                             Arrays.asList(null, null, null, null, null, null),
+                             Arrays.asList(false, -1L, -0.5, "", Instant.EPOCH, JsonString.of("bar"))),
+                     builder.records);
+
+        final RecordingPageBuilder another = new RecordingPageBuilder(Schema.builder().add("long", Types.LONG).build());
+        assertThrows(IllegalArgumentException.class, () -> another.addColumnBatch(batch));
+        assertTrue(another.records.isEmpty());
+    }
+
+    private static class RecordingPageBuilder extends PageBuilder {
+        RecordingPageBuilder(final Schema schema) {
+            this.schema = schema;
+            this.records = new ArrayList<>();
+            this.current = new Object[schema.getColumnCount()];
+        }
+
+        @Override
+        public Schema getSchema() {
+            return this.schema;
+        }
+
+        @Override
+        public void setNull(final int columnIndex) {
+            this.current[columnIndex] = null;
+        }
+
+        @Override
+        public void setBoolean(final int columnIndex, final boolean value) {
+            this.current[columnIndex] = value;
+        }
+
+        @Override
+        public void setLong(final int columnIndex, final long value) {
+            this.current[columnIndex] = value;
+        }
+
+        @Override
+        public void setDouble(final int columnIndex, final double value) {
+            this.current[columnIndex] = value;
+        }
+
+        @Override
+        public void setString(final int columnIndex, final String value) {
+            this.current[columnIndex] = value;
+        }
+
+        @Override
+        public void setTimestamp(final int columnIndex, final Instant value) {
+            this.current[columnIndex] = value;
+        }
+
+        @Override
+        public void setJson(final int columnIndex, final JsonValue value) {
+            this.current[columnIndex] = value;
+        }
+
+        @Override
+        public void addRecord() {
+            this.records.add(Arrays.asList(this.current.clone()));
+            Arrays.fill(this.current, "unset");
+        }
+
+        private final Schema schema;
+        private final List<List<Object>> records;
+        private final Object[] current;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class TestNioBuffer {
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDirect() {
+        final NioBuffer buffer = NioBuffer.allocateDirect(16);
+        assertTrue(buffer.isDirect());
+        assertEquals(16, buffer.capacity());
+        assertEquals(0, buffer.offset());
+        assertEquals(0, buffer.limit());
+        assertThrows(UnsupportedOperationException.class, () -> buffer.array());
+
+        buffer.setBytes(0, "hello".getBytes(StandardCharsets.US_ASCII), 0, 5);
+        buffer.limit(5);
+        final byte[] read = new byte[5];
+        buffer.getBytes(0, read, 0, 5);
+        assertArrayEquals("hello".getBytes(StandardCharsets.US_ASCII), read);
+
+        final ByteBuffer nio = buffer.nioBuffer();
+        assertEquals(0, nio.position());
+        assertEquals(5, nio.limit());
+        assertEquals('h', nio.get(0));
+
+        assertThrows(IllegalStateException.class, () -> buffer.limit(17));
+    }
+
+    @Test
+    public void testOffset() {
+        final NioBuffer buffer = NioBuffer.allocateDirect(16);
+        buffer.limit(10);
+        buffer.offset(4);
+        assertEquals(6, buffer.limit());
+
+        buffer.setBytes(0, new byte[] { 1, 2, 3 }, 0, 3);
+        final ByteBuffer nio = buffer.nioBuffer(1, 2);
+        assertEquals(2, nio.remaining());
+        assertEquals(2, nio.get(0));
+        assertEquals(3, nio.get(1));
+    }
+
+    @Test
+    public void testCopyBetweenBuffers() {
+        final NioBuffer source = NioBuffer.wrap(ByteBuffer.wrap("abcdef".getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(source.isDirect());
+        assertEquals(6, source.limit());
+
+        final NioBuffer dest = NioBuffer.allocateDirect(8);
+        source.getBytes(2, dest, 1, 3);
+        final byte[] read = new byte[3];
+        dest.getBytes(1, read, 0, 3);
+        assertArrayEquals("cde".getBytes(StandardCharsets.US_ASCII), read);
+
+        assertThrows(IllegalArgumentException.class, () -> NioBuffer.wrap(ByteBuffer.allocate(4).asReadOnlyBuffer()));
+    }
+
+    @Test
+    public void testByteBufferBridging() {
+        final NioBuffer buffer = NioBuffer.allocateDirect(8);
+        buffer.setBytes(2, ByteBuffer.wrap("xyz".getBytes(StandardCharsets.US_ASCII)));
+        buffer.limit(5);
+
+        final ByteBuffer dest = ByteBuffer.allocate(3);
+        buffer.getBytes(2, dest);
+        assertEquals(3, dest.position());
+        assertArrayEquals("xyz".getBytes(StandardCharsets.US_ASCII), dest.array());
+
+        final ByteBuffer view = buffer.asByteBuffer();
+        assertTrue(view.isReadOnly());
+        assertEquals(5, view.remaining());
+        assertEquals('z', view.get(4));
+    }
+
+    @Test
+    public void testReferenceCount() {
+        final NioBuffer buffer = NioBuffer.allocateDirect(8);
+        buffer.setBytes(0, "abcdefgh".getBytes(StandardCharsets.US_ASCII), 0, 8);
+        buffer.limit(8);
+        assertEquals(1, buffer.referenceCount());
+
+        final NioBuffer sliced = buffer.slice(2, 3);
+        assertEquals(2, buffer.referenceCount());
+        assertEquals(2, sliced.referenceCount());
+        assertEquals(0, sliced.offset());
+        assertEquals(3, sliced.limit());
+        assertEquals(3, sliced.capacity());
+        final byte[] read = new byte[3];
+        sliced.getBytes(0, read, 0, 3);
+        assertArrayEquals("cde".getBytes(StandardCharsets.US_ASCII), read);
+
+        final NioBuffer duplicated = buffer.duplicate();
+        assertEquals(3, buffer.referenceCount());
+        assertEquals(8, duplicated.limit());
+        duplicated.offset(4);
+        assertEquals(0, buffer.offset());
+
+        assertEquals(buffer, buffer.retain());
+        assertEquals(4, buffer.referenceCount());
+
+        buffer.release();
+        buffer.release();
+        duplicated.release();
+        sliced.getBytes(0, read, 0, 3);
+        sliced.release();
+        assertEquals(0, buffer.referenceCount());
+
+        assertThrows(IllegalStateException.class, () -> sliced.getBytes(0, read, 0, 3));
+        assertThrows(IllegalStateException.class, () -> buffer.retain());
+        assertThrows(IllegalStateException.class, () -> buffer.release());
+    }
+}
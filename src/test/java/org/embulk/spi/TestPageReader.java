@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import org.embulk.spi.json.JsonLong;
+import org.embulk.spi.json.JsonValue;
+import org.embulk.spi.type.Types;
+import org.junit.jupiter.api.Test;
+
+public class TestPageReader {
+    @Test
+    public void testForEachRecord() {
+        final Schema schema = Schema.builder()
+                .add("boolean", Types.BOOLEAN)
+                .add("long", Types.LONG)
+                .add("double", Types.DOUBLE)
+                .add("string", Types.STRING)
+                .add("timestamp", Types.TIMESTAMP)
+                .add("json", Types.JSON)
+                .build();
+        final PageReader reader = new InMemoryPageReader(schema, new Object[][] {
+                { true, 42L, 1.5, "foo", Instant.ofEpochSecond(1, 2), JsonLong.of(3) },
+                { null, null, null, null, null, null },
+        });
+
+        final StringBuilder actual = new StringBuilder();
+        final int records = reader.forEachRecord(new RecordHandler() {
+                @Override
+                public void onRecordStart() {
+                    actual.append("[");
+                }
+
+                @Override
+                public void onRecordEnd() {
+                    actual.append("]");
+                }
+
+                @Override
+                public void onBoolean(final int columnIndex, final boolean value) {
+                    actual.append(columnIndex).append(":").append(value).append(" ");
+                }
+
+                @Override
+                public void onLong(final int columnIndex, final long value) {
+                    actual.append(columnIndex).append(":").append(value).append(" ");
+                }
+
+                @Override
+                public void onDouble(final int columnIndex, final double value) {
+                    actual.append(columnIndex).append(":").append(value).append(" ");
+                }
+
+                @Override
+                public void onString(final int columnIndex, final String value) {
+                    actual.append(columnIndex).append(":").append(value).append(" ");
+                }
+
+                @Override
+                public void onTimestamp(final int columnIndex, final Instant value) {
+                    actual.append(columnIndex).append(":").append(value).append(" ");
+                }
+
+                @Override
+                public void onJson(final int columnIndex, final JsonValue value) {
+                    actual.append(columnIndex).append(":").append(value.toJson()).append(" ");
+                }
+
+                @Override
+                public void onNull(final int columnIndex) {
+                    actual.append(columnIndex).append(":null ");
+                }
+            });
+
+        assertEquals(2, records);
+        assertEquals("[0:true 1:42 2:1.5 3:foo 4:1970-01-01T00:00:01.000000002Z 5:3 ]"
+                + "[0:null 1:null 2:null 3:null 4:null 5:null ]", actual.toString());
+        // The cursor is at the end.
+        final CountingHandler atEnd = new CountingHandler();
+        assertEquals(0, reader.forEachRecord(atEnd));
+        assertEquals(0, atEnd.records);
+        assertThrows(NullPointerException.class, () -> reader.forEachRecord(null));
+    }
+
+    @Test
+    public void testForEachRecordCallbacks() {
+        final Schema schema = Schema.builder()
+                .add("long", Types.LONG)
+                .add("string", Types.STRING)
+                .build();
+        final PageReader reader = new InMemoryPageReader(schema, new Object[][] {
+                { 1L, "foo" },
+                { null, "bar" },
+                { null, null },
+        });
+
+        final CountingHandler handler = new CountingHandler();
+        assertEquals(3, reader.forEachRecord(handler));
+        assertEquals(3, handler.records);
+        assertEquals(3, handler.values);
+        assertEquals(3, handler.nulls);
+    }
+
+    private static class CountingHandler implements RecordHandler {
+        @Override
+        public void onRecordEnd() {
+            this.records++;
+        }
+
+        @Override
+        public void onBoolean(final int columnIndex, final boolean value) {
+            this.values++;
+        }
+
+        @Override
+        public void onLong(final int columnIndex, final long value) {
+            this.values++;
+        }
+
+        @Override
+        public void onDouble(final int columnIndex, final double value) {
+            this.values++;
+        }
+
+        @Override
+        public void onString(final int columnIndex, final String value) {
+            this.values++;
+        }
+
+        @Override
+        public void onTimestamp(final int columnIndex, final Instant value) {
+            this.values++;
+        }
+
+        @Override
+        public void onJson(final int columnIndex, final JsonValue value) {
+            this.values++;
+        }
+
+        @Override
+        public void onNull(final int columnIndex) {
+            this.nulls++;
+        }
+
+        private int records;
+        private int values;
+        private int nulls;
+    }
+}
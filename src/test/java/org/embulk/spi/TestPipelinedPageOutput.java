@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.embulk.spi.json.JsonValue;
+import org.junit.jupiter.api.Test;
+import org.msgpack.value.ImmutableValue;
+
+public class TestPipelinedPageOutput {
+    @Test
+    public void testPipelined() {
+        final RecordingPageOutput downstream = new RecordingPageOutput();
+        final PipelinedPageOutput output = PipelinedPageOutput.of(downstream, 2);
+        final List<Page> pages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Page page = new TestPage();
+            pages.add(page);
+            output.add(page);
+        }
+        output.finish();
+        assertEquals(pages, downstream.added);
+        assertTrue(downstream.finished);
+        assertNotEquals(Thread.currentThread(), downstream.thread);
+        output.close();
+        assertTrue(downstream.closed);
+    }
+
+    @Test
+    public void testAddAll() {
+        final List<List<Page>> groups = Collections.synchronizedList(new ArrayList<>());
+        final RecordingPageOutput downstream = new RecordingPageOutput() {
+            @Override
+            public void addAll(final List<Page> pages) {
+                groups.add(pages);
+                super.addAll(pages);
+            }
+        };
+        final PipelinedPageOutput output = PipelinedPageOutput.of(downstream, 1);
+        final Page page1 = new TestPage();
+        final Page page2 = new TestPage();
+        final Page page3 = new TestPage();
+        output.addAll(Arrays.asList(page1, page2));
+        output.add(page3);
+        output.finish();
+        output.close();
+        assertEquals(Collections.singletonList(Arrays.asList(page1, page2)), groups);
+        assertEquals(Arrays.asList(page1, page2, page3), downstream.added);
+    }
+
+    @Test
+    public void testFailure() throws InterruptedException {
+        final RuntimeException failure = new RuntimeException("failed");
+        final CountDownLatch returned = new CountDownLatch(1);
+        final CountDownLatch failed = new CountDownLatch(1);
+        final RecordingPageOutput downstream = new RecordingPageOutput() {
+            @Override
+            public void add(final Page page) {
+                try {
+                    // Fail only after the first add has returned to the caller.
+                    returned.await();
+                } catch (final InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                failed.countDown();
+                throw failure;
+            }
+        };
+        final PipelinedPageOutput output = PipelinedPageOutput.of(downstream, 1);
+        output.add(new TestPage());
+        returned.countDown();
+        failed.await();
+
+        final TestPage page = new TestPage();
+        assertSame(failure, assertThrows(RuntimeException.class, () -> {
+            // The failure is visible once the worker has stored it.
+            while (true) {
+                output.add(page);
+                Thread.sleep(10);
+            }
+        }));
+        assertSame(failure, assertThrows(RuntimeException.class, () -> output.finish()));
+        output.close();
+        assertTrue(page.released);
+        assertTrue(downstream.closed);
+    }
+
+    @Test
+    public void testCloseWithoutFinish() throws InterruptedException {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final RecordingPageOutput downstream = new RecordingPageOutput() {
+            @Override
+            public void add(final Page page) {
+                entered.countDown();
+                try {
+                    blocking.await();
+                } catch (final InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                super.add(page);
+            }
+        };
+        final CountDownLatch discarding = new CountDownLatch(1);
+        final TestPage delivered = new TestPage();
+        final TestPage discarded = new TestPage() {
+            @Override
+            public void release() {
+                super.release();
+                discarding.countDown();
+            }
+        };
+
+        final PipelinedPageOutput output = PipelinedPageOutput.of(downstream, 4);
+        output.add(delivered);
+        entered.await();  // The worker is delivering the first Page.
+        output.add(discarded);  // The second Page is queued.
+
+        // The downstream is unblocked only after close() discards the queued Page.
+        final Thread unblocker = new Thread(() -> {
+            try {
+                discarding.await();
+            } catch (final InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            blocking.countDown();
+        });
+        unblocker.start();
+        output.close();
+        unblocker.join();
+
+        assertEquals(Arrays.asList(delivered), downstream.added);
+        assertFalse(delivered.released);
+        assertTrue(discarded.released);
+        assertTrue(downstream.closed);
+        assertFalse(downstream.finished);
+    }
+
+    private static class RecordingPageOutput implements PageOutput {
+        @Override
+        public void add(final Page page) {
+            this.added.add(page);
+            this.thread = Thread.currentThread();
+        }
+
+        @Override
+        public void finish() {
+            this.finished = true;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        final List<Page> added = Collections.synchronizedList(new ArrayList<>());
+        volatile Thread thread;
+        volatile boolean finished;
+        volatile boolean closed;
+    }
+
+    private static class TestPage extends Page {
+        @Override
+        @SuppressWarnings("deprecation")
+        public Page setStringReferences(final List<String> values) {
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Page setValueReferences(final List<ImmutableValue> values) {
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public List<String> getStringReferences() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public List<ImmutableValue> getValueReferences() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getStringReference(final int index) {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public ImmutableValue getValueReference(final int index) {
+            return null;
+        }
+
+        @Override
+        public JsonValue getJsonValueReference(final int index) {
+            return null;
+        }
+
+        @Override
+        public void release() {
+            this.released = true;
+        }
+
+        @Override
+        public Buffer buffer() {
+            return null;
+        }
+
+        volatile boolean released;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+public class TestPooledBufferAllocator {
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testReuse() {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().build();
+
+        final Buffer buffer1 = allocator.allocate(5000);
+        assertEquals(8192, buffer1.capacity());
+        assertFalse(buffer1.isDirect());
+        final byte[] array = buffer1.array();
+        buffer1.release();
+
+        final Buffer buffer2 = allocator.allocate(8000);
+        assertSame(array, buffer2.array());
+        final Buffer buffer3 = allocator.allocate(8000);
+        assertEquals(8192, buffer3.capacity());
+        buffer2.release();
+        buffer3.release();
+
+        final PooledBufferAllocator.Stats stats = allocator.getStats();
+        assertEquals(3, stats.getAllocationCount());
+        assertEquals(1, stats.getReuseCount());
+        assertEquals(3, stats.getReleaseCount());
+    }
+
+    @Test
+    public void testSizeClasses() {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder()
+                .setDefaultBufferSize(100)
+                .setMinimumSizeClass(1024)
+                .setMaximumSizeClass(4096)
+                .setDirect(true)
+                .build();
+        assertEquals(1024, allocator.allocate().capacity());
+        assertEquals(1024, allocator.allocate(0).capacity());
+        assertEquals(2048, allocator.allocate(1025).capacity());
+        assertEquals(4096, allocator.allocate(4096).capacity());
+        assertEquals(4097, allocator.allocate(4097).capacity());
+        assertTrue(allocator.allocateDirect(10).isDirect());
+
+        assertThrows(IllegalArgumentException.class, () -> allocator.allocate(-1));
+        assertThrows(IllegalArgumentException.class, () -> PooledBufferAllocator.builder().setMinimumSizeClass(8192).setMaximumSizeClass(4096).build());
+    }
+
+    @Test
+    public void testArenaAcrossThreads() throws InterruptedException {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder()
+                .setThreadLocalCacheSize(0)
+                .setMaximumArenaBytesPerSizeClass(8192)
+                .build();
+        final Buffer buffer1 = allocator.allocate(4096);
+        final Buffer buffer2 = allocator.allocate(4096);
+        final Buffer buffer3 = allocator.allocate(4096);
+
+        final Thread thread = new Thread(() -> {
+            buffer1.release();
+            buffer2.release();
+            buffer3.release();
+        });
+        thread.start();
+        thread.join();
+        assertEquals(8192, allocator.getStats().getPooledBytes());
+
+        allocator.allocate(4096);
+        assertEquals(4096, allocator.getStats().getPooledBytes());
+        assertEquals(1, allocator.getStats().getReuseCount());
+    }
+
+    @Test
+    public void testMetrics() {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().setLeakDetectionSamplingInterval(1).build();
+        final Buffer buffer1 = allocator.allocate(4096);
+        final Buffer buffer2 = allocator.allocate(10000);
+        final Buffer buffer3 = allocator.allocate(2 * 1024 * 1024);
+        buffer2.release();
+
+        final BufferAllocatorMetrics metrics1 = allocator.getMetrics().get();
+        assertEquals(3, metrics1.getAllocationCount());
+        assertEquals(1, metrics1.getReleaseCount());
+        assertEquals(2, metrics1.getOutstandingCount());
+        assertEquals(4096 + 2 * 1024 * 1024, metrics1.getLiveBytes());
+        assertEquals(4096 + 16384 + 2 * 1024 * 1024, metrics1.getPeakLiveBytes());
+        assertEquals(0, metrics1.getLeakCount());
+
+        buffer1.release();
+        buffer3.release();
+        final BufferAllocatorMetrics metrics2 = allocator.getMetrics().get();
+        assertEquals(0, metrics2.getOutstandingCount());
+        assertEquals(0, metrics2.getLiveBytes());
+        assertEquals(4096 + 16384 + 2 * 1024 * 1024, metrics2.getPeakLiveBytes());
+        assertTrue(metrics2.getAllocationsPerSecond() > 0.0);
+    }
+
+    @Test
+    public void testLeakDetection() throws InterruptedException {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().setLeakDetectionSamplingInterval(1).build();
+        final Buffer kept = allocator.allocate(4096);
+        allocateAndDrop(allocator, 16384);
+        assertEquals(4096 + 16384, allocator.getMetrics().get().getLiveBytes());
+
+        BufferAllocatorMetrics metrics = allocator.getMetrics().get();
+        for (int i = 0; i < 100 && metrics.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+            metrics = allocator.getMetrics().get();
+        }
+        assertEquals(1, metrics.getLeakCount());
+        assertEquals(2, metrics.getAllocationCount());
+        assertEquals(0, metrics.getReleaseCount());
+        assertEquals(1, metrics.getOutstandingCount());
+        assertEquals(4096, metrics.getLiveBytes());
+
+        kept.release();
+        assertEquals(0, allocator.getMetrics().get().getOutstandingCount());
+        assertEquals(0, allocator.getMetrics().get().getLiveBytes());
+    }
+
+    @Test
+    public void testMemoryBudget() throws InterruptedException {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().setMemoryBudgetBytes(8192).build();
+        final Buffer buffer1 = allocator.allocate(4096);
+        final Buffer buffer2 = allocator.tryAllocate(4096, 0, TimeUnit.MILLISECONDS).get();
+        assertFalse(allocator.tryAllocate(4096, 10, TimeUnit.MILLISECONDS).isPresent());
+
+        final AtomicReference<Buffer> allocated = new AtomicReference<>();
+        final Thread thread = new Thread(() -> allocated.set(allocator.allocate(4096)));
+        thread.start();
+        awaitBlocked(thread);
+        assertNull(allocated.get());
+        buffer1.release();
+        thread.join();
+        final Buffer buffer3 = allocated.get();
+        assertEquals(4096, buffer3.capacity());
+        buffer2.release();
+        buffer3.release();
+
+        // A Buffer larger than the entire budget is allowed when nothing else is outstanding.
+        final Optional<Buffer> large = allocator.tryAllocate(16384, 0, TimeUnit.MILLISECONDS);
+        assertTrue(large.isPresent());
+        assertFalse(allocator.tryAllocate(4096, 0, TimeUnit.MILLISECONDS).isPresent());
+        large.get().release();
+        assertEquals(16384, allocator.getMetrics().get().getPeakLiveBytes());
+    }
+
+    @Test
+    public void testMemoryBudgetInterrupted() throws InterruptedException {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().setMemoryBudgetBytes(4096).build();
+        final Buffer buffer = allocator.allocate(4096);
+
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        final Thread thread = new Thread(() -> {
+            try {
+                allocator.allocate(4096);
+            } catch (final RuntimeException ex) {
+                thrown.set(ex);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        thread.start();
+        awaitBlocked(thread);
+        thread.interrupt();
+        thread.join();
+        assertTrue(thrown.get().getCause() instanceof InterruptedException);
+        assertTrue(interrupted.get());
+
+        // The interrupted allocation does not consume the budget.
+        buffer.release();
+        allocator.tryAllocate(4096, 0, TimeUnit.MILLISECONDS).get().release();
+    }
+
+    @Test
+    public void testMemoryBudgetReturnedOnFailure() throws InterruptedException {
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().setMemoryBudgetBytes(8192).build();
+        // It fails immediately as the array is larger than the VM limit.
+        assertThrows(OutOfMemoryError.class, () -> allocator.allocate(Integer.MAX_VALUE));
+        assertEquals(0, allocator.getMetrics().get().getAllocationCount());
+        allocator.tryAllocate(8192, 0, TimeUnit.MILLISECONDS).get().release();
+    }
+
+    @Test
+    public void testMemoryBudgetReturnedFromLeak() throws InterruptedException {
+        // Leak detection is not sampling, but the leaked Buffer is tracked for the budget.
+        final PooledBufferAllocator allocator = PooledBufferAllocator.builder().setMemoryBudgetBytes(8192).build();
+        allocateAndDrop(allocator, 8192);
+
+        Optional<Buffer> buffer = Optional.empty();
+        for (int i = 0; i < 100 && !buffer.isPresent(); i++) {
+            System.gc();
+            buffer = allocator.tryAllocate(8192, 50, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(buffer.isPresent());
+        assertEquals(1, allocator.getMetrics().get().getLeakCount());
+        buffer.get().release();
+    }
+
+    private static void awaitBlocked(final Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(thread.isAlive());
+            Thread.yield();
+        }
+    }
+
+    // Not to keep the Buffer referenced from a local variable of the test method.
+    private static void allocateAndDrop(final BufferAllocator allocator, final int capacity) {
+        allocator.allocate(capacity);
+    }
+}
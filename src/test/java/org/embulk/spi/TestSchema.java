@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.embulk.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Optional;
+import org.embulk.spi.type.Type;
+import org.embulk.spi.type.Types;
+import org.junit.jupiter.api.Test;
+
+public class TestSchema {
+    @Test
+    public void testLookupColumn() {
+        final Schema schema = Schema.builder()
+                .add("id", Types.LONG)
+                .add("name", Types.STRING)
+                .add("id", Types.DOUBLE)
+                .build();
+        assertSame(schema.getColumn(0), schema.lookupColumn("id"));
+        assertSame(schema.getColumn(1), schema.lookupColumn(new String("name")));
+        assertThrows(SchemaConfigException.class, () -> schema.lookupColumn("missing"));
+        assertThrows(SchemaConfigException.class, () -> schema.lookupColumn(null));
+    }
+
+    @Test
+    public void testFindColumn() {
+        final Schema schema = new Schema(Arrays.asList(
+                new Column(0, "id", Types.LONG),
+                new Column(1, "name", Types.STRING),
+                new Column(2, "id", Types.DOUBLE)));
+        // The first column wins if names are duplicated.
+        assertEquals(Optional.of(schema.getColumn(0)), schema.findColumn("id"));
+        assertEquals(Optional.of(schema.getColumn(1)), schema.findColumn("name"));
+        assertFalse(schema.findColumn("missing").isPresent());
+        assertFalse(schema.findColumn(null).isPresent());
+    }
+
+    @Test
+    public void testWide() {
+        final Schema.Builder builder = Schema.builder();
+        for (int i = 0; i < 500; i++) {
+            builder.add("column" + i, Types.STRING);
+        }
+        final Schema schema = builder.build();
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, schema.lookupColumn("column" + i).getIndex());
+        }
+    }
+
+    @Test
+    public void testRecordLayout() {
+        final Schema.Builder builder = Schema.builder()
+                .add("boolean", Types.BOOLEAN)
+                .add("long", Types.LONG)
+                .add("double", Types.DOUBLE)
+                .add("string", Types.STRING)
+                .add("timestamp", Types.TIMESTAMP)
+                .add("json", Types.JSON);
+        for (int i = 0; i < 3; i++) {
+            builder.add("extra" + i, Types.BOOLEAN);
+        }
+        final Schema schema = builder.build();
+        final RecordLayout layout = schema.getRecordLayout();
+        assertSame(layout, schema.getRecordLayout());
+        assertEquals(9, layout.getColumnCount());
+        assertEquals(2, layout.getNullBitSetSize());
+        assertEquals(6, layout.getRecordHeaderSize());
+        assertEquals(6, layout.getColumnOffset(0));
+        assertEquals(7, layout.getColumnOffset(1));
+        assertEquals(15, layout.getColumnOffset(2));
+        assertEquals(23, layout.getColumnOffset(3));
+        assertEquals(27, layout.getColumnOffset(4));
+        assertEquals(39, layout.getColumnOffset(5));
+        assertEquals(43, layout.getColumnOffset(6));
+        assertEquals(40, layout.getFixedStorageSize());
+        assertEquals(40, schema.getFixedStorageSize());
+        assertEquals(46, layout.getFixedRecordSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> layout.getColumnOffset(9));
+
+        final RecordLayout empty = Schema.builder().build().getRecordLayout();
+        assertEquals(4, empty.getRecordHeaderSize());
+        assertEquals(4, empty.getFixedRecordSize());
+    }
+
+    @Test
+    public void testGetKind() {
+        assertEquals(Type.Kind.BOOLEAN, Types.BOOLEAN.getKind());
+        assertEquals(Type.Kind.LONG, Types.LONG.getKind());
+        assertEquals(Type.Kind.DOUBLE, Types.DOUBLE.getKind());
+        assertEquals(Type.Kind.STRING, Types.STRING.getKind());
+        assertEquals(Type.Kind.TIMESTAMP, Types.TIMESTAMP.getKind());
+        assertEquals(Type.Kind.JSON, Types.JSON.getKind());
+    }
+
+    @Test
+    public void testCompileVisitor() {
+        final Schema schema = Schema.builder()
+                .add("boolean", Types.BOOLEAN)
+                .add("long", Types.LONG)
+                .add("double", Types.DOUBLE)
+                .add("string", Types.STRING)
+                .add("timestamp", Types.TIMESTAMP)
+                .add("json", Types.JSON)
+                .build();
+        final StringBuilder expected = new StringBuilder();
+        schema.visitColumns(new RecordingVisitor(expected));
+
+        final StringBuilder actual = new StringBuilder();
+        final CompiledColumnVisitor compiled = schema.compileVisitor(new RecordingVisitor(actual));
+        compiled.visitColumns();
+        assertEquals("boolean:0 long:1 double:2 string:3 timestamp:4 json:5 ", expected.toString());
+        assertEquals(expected.toString(), actual.toString());
+
+        actual.setLength(0);
+        compiled.visitColumn(3);
+        assertEquals("string:3 ", actual.toString());
+
+        assertThrows(NullPointerException.class, () -> schema.compileVisitor(null));
+    }
+
+    private static class RecordingVisitor implements ColumnVisitor {
+        RecordingVisitor(final StringBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void booleanColumn(final Column column) {
+            this.builder.append("boolean:").append(column.getIndex()).append(" ");
+        }
+
+        @Override
+        public void longColumn(final Column column) {
+            this.builder.append("long:").append(column.getIndex()).append(" ");
+        }
+
+        @Override
+        public void doubleColumn(final Column column) {
+            this.builder.append("double:").append(column.getIndex()).append(" ");
+        }
+
+        @Override
+        public void stringColumn(final Column column) {
+            this.builder.append("string:").append(column.getIndex()).append(" ");
+        }
+
+        @Override
+        public void timestampColumn(final Column column) {
+            this.builder.append("timestamp:").append(column.getIndex()).append(" ");
+        }
+
+        @Override
+        public void jsonColumn(final Column column) {
+            this.builder.append("json:").append(column.getIndex()).append(" ");
+        }
+
+        private final StringBuilder builder;
+    }
+}
@@ -18,6 +18,9 @@ package org.embulk.spi.json;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -345,4 +348,37 @@ public class TestJsonArray {
                                 ValueFactory.newString("foo"), ValueFactory.newString("bar"), ValueFactory.newString("baz")),
                         ValueFactory.newBoolean(true))));
     }
+
+    @Test
+    public void testCache() {
+        final JsonArray small = JsonArray.of(JsonLong.of(1), JsonString.of("foo"), JsonObject.of("k", JsonBoolean.TRUE));
+        final String json = small.toJson();
+        assertEquals("[1,\"foo\",{\"k\":true}]", json);
+        assertSame(json, small.toJson());
+        assertEquals(small.hashCode(), small.hashCode());
+        assertEquals(JsonArray.of(JsonLong.of(1), JsonString.of("foo"), JsonObject.of("k", JsonBoolean.TRUE)).hashCode(), small.hashCode());
+
+        // Long stringified JSON representations are not cached.
+        final JsonValue[] values = new JsonValue[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = JsonLong.of(i);
+        }
+        final JsonArray large = JsonArray.of(values);
+        assertEquals(large.toJson(), large.toJson());
+        assertNotSame(large.toJson(), large.toJson());
+
+        final JsonArray other = JsonArray.of(JsonLong.of(1), JsonString.of("foo"), JsonObject.of("k", JsonBoolean.FALSE));
+        other.hashCode();
+        assertNotEquals(small, other);
+        assertEquals(small, JsonArray.of(JsonLong.of(1), JsonString.of("foo"), JsonObject.of("k", JsonBoolean.TRUE)));
+
+        // Nothing is cached in a JSON array by #ofUnsafe as its internal array can be modified.
+        final JsonValue[] unsafeValues = { JsonLong.of(1) };
+        final JsonArray unsafe = JsonArray.ofUnsafe(unsafeValues);
+        assertEquals("[1]", unsafe.toJson());
+        final int hash = unsafe.hashCode();
+        unsafeValues[0] = JsonLong.of(2);
+        assertEquals("[2]", unsafe.toJson());
+        assertNotEquals(hash, unsafe.hashCode());
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.msgpack.value.ValueFactory;
+
+public class TestJsonKeyInterner {
+    @Test
+    public void testIntern() {
+        final JsonKeyInterner interner = JsonKeyInterner.of(2);
+        final String foo = new String("foo");
+        assertSame(foo, interner.intern(foo));
+        assertSame(foo, interner.intern(new String("foo")));
+        final String bar = new String("bar");
+        assertSame(bar, interner.intern(bar));
+        assertEquals(2, interner.size());
+
+        // The pool is full.
+        final String baz = new String("baz");
+        assertSame(baz, interner.intern(baz));
+        assertNotSame(baz, interner.intern(new String("baz")));
+        assertEquals(2, interner.size());
+
+        assertThrows(NullPointerException.class, () -> interner.intern(null));
+        assertThrows(IllegalArgumentException.class, () -> JsonKeyInterner.of(-1));
+    }
+
+    @Test
+    public void testBuilder() {
+        final JsonKeyInterner interner = JsonKeyInterner.of(100);
+        final JsonObject object1 = JsonObject.builder(interner).put(new String("foo"), JsonLong.of(1)).build();
+        final JsonObject object2 = JsonObject.builder(interner).put(JsonString.of(new String("foo")), JsonLong.of(2)).build();
+        assertSame(object1.keyAt(0), object2.keyAt(0));
+        assertEquals(JsonLong.of(2), object2.get("foo"));
+    }
+
+    @Test
+    public void testOfUnsafe() {
+        final JsonKeyInterner interner = JsonKeyInterner.of(100);
+        final JsonObject object1 = JsonObject.ofUnsafe(new String[] { new String("foo") }, new JsonValue[] { JsonNull.NULL }, interner);
+        final JsonObject object2 = JsonObject.ofUnsafe(new String[] { new String("foo") }, new JsonValue[] { JsonNull.NULL }, interner);
+        assertSame(object1.keyAt(0), object2.keyAt(0));
+        assertEquals(object1, object2);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testFromMsgpack() {
+        final JsonKeyInterner interner = JsonKeyInterner.of(100);
+        final JsonObject object1 = JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("foo"), ValueFactory.newArray(
+                        ValueFactory.newMap(ValueFactory.newString("bar"), ValueFactory.newInteger(1)))), interner).asJsonObject();
+        final JsonObject object2 = JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("bar"), ValueFactory.newInteger(2)), interner).asJsonObject();
+        assertSame(object1.keyAt(0), interner.intern("foo"));
+        // Keys of nested JSON objects converted lazily are interned, too.
+        assertSame(object1.get("foo").asJsonArray().get(0).asJsonObject().keyAt(0), object2.keyAt(0));
+    }
+
+    @Test
+    public void testParser() {
+        final JsonKeyInterner interner = JsonKeyInterner.of(100);
+        final byte[] bytes = "{\"id\": 1, \"nested\": {\"id\": 2}}\n{\"id\": 3}".getBytes(StandardCharsets.UTF_8);
+        try (final JsonParser.StreamReader reader = JsonParser.openStream(new ByteArrayInputStream(bytes), interner)) {
+            final JsonObject object1 = reader.readNext().asJsonObject();
+            final JsonObject object2 = reader.readNext().asJsonObject();
+            assertSame(object1.keyAt(0), object2.keyAt(0));
+            assertSame(object1.get("nested").asJsonObject().keyAt(0), object2.keyAt(0));
+        }
+        assertEquals(2, interner.size());
+    }
+}
@@ -16,19 +16,30 @@
 
 package org.embulk.spi.json;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import org.embulk.spi.NioBuffer;
 import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
 import org.msgpack.value.ValueFactory;
 
 public class TestJsonObject {
@@ -762,4 +773,260 @@ public class TestJsonObject {
                              ValueFactory.newString("piyo"), ValueFactory.newInteger(345),
                              ValueFactory.newString("hogera"), ValueFactory.newString("bar"))));
     }
+
+    @Test
+    @SuppressWarnings("deprecation")  // To call JsonValue#fromMsgpack().
+    public void testFromMsgpackLazily() {
+        final JsonObject object = JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("foo"), ValueFactory.newInteger(42),
+                ValueFactory.newString("bar"), ValueFactory.newString("\u3042"),  // Non-ASCII characters
+                ValueFactory.newString("baz"), ValueFactory.newArray(
+                        ValueFactory.newString("v"),
+                        ValueFactory.newMap(ValueFactory.newString("k"), ValueFactory.newFloat(1.5)),
+                        ValueFactory.newNil())))
+                .asJsonObject();
+        final JsonObject expected = JsonObject.of(
+                "foo", JsonLong.of(42),
+                "bar", JsonString.of("\u3042"),  // Non-ASCII characters
+                "baz", JsonArray.of(JsonString.of("v"), JsonObject.of("k", JsonDouble.of(1.5)), JsonNull.NULL));
+
+        // The approximate size is computed without converting the values.
+        assertEquals(expected.presumeReferenceSizeInBytes(), object.presumeReferenceSizeInBytes());
+        assertEquals(3, object.size());
+        assertEquals("bar", object.keyAt(1));
+        assertTrue(object.containsKey("bar"));
+
+        // Values are converted only when they are accessed.
+        assertEquals(JsonLong.of(42), object.get("foo"));
+        assertSame(object.get("foo"), object.valueAt(0));
+        final JsonArray array = object.get("baz").asJsonArray();
+        assertEquals(expected.get("baz").presumeReferenceSizeInBytes(), array.presumeReferenceSizeInBytes());
+        assertEquals(JsonObject.of("k", JsonDouble.of(1.5)), array.get(1));
+        assertEquals(expected, object);
+        assertEquals(expected.presumeReferenceSizeInBytes(), object.presumeReferenceSizeInBytes());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")  // To call JsonValue#fromMsgpack().
+    public void testFromMsgpackUnsupportedNested() {
+        // Unsupported types nested at any depth are rejected at conversion, not later at access.
+        assertThrows(IllegalArgumentException.class, () -> JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("foo"), ValueFactory.newInteger(42),
+                ValueFactory.newString("bar"), ValueFactory.newBinary(new byte[] { 0x01 }))));
+        assertThrows(IllegalArgumentException.class, () -> JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("baz"), ValueFactory.newArray(ValueFactory.newString("v"), ValueFactory.newBinary(new byte[0])))));
+        assertThrows(IllegalArgumentException.class, () -> JsonValue.fromMsgpack(ValueFactory.newArray(
+                ValueFactory.newMap(ValueFactory.newString("k"), ValueFactory.newExtension((byte) 1, new byte[0])))));
+        assertThrows(IllegalArgumentException.class, () -> JsonValue.fromMsgpack(ValueFactory.newArray(
+                ValueFactory.newMap(ValueFactory.newInteger(1), ValueFactory.newNil()))));
+        assertThrows(IllegalArgumentException.class, () -> JsonValue.fromMsgpack(ValueFactory.newArray(
+                ValueFactory.newInteger(BigInteger.ONE.shiftLeft(64)))));
+    }
+
+    @Test
+    public void testCache() {
+        final JsonObject object = JsonObject.of("foo", JsonString.of("bar\n"), "baz", JsonArray.of(JsonLong.of(1)));
+        final String json = object.toJson();
+        assertEquals("{\"foo\":\"bar\\n\",\"baz\":[1]}", json);
+        assertSame(json, object.toJson());
+        assertSame(object.get("foo").toJson(), object.get("foo").toJson());
+        assertEquals(object.hashCode(), object.hashCode());
+
+        // The equality does not depend on the order of keys, even after the hash codes are cached.
+        final JsonObject reordered = JsonObject.of("baz", JsonArray.of(JsonLong.of(1)), "foo", JsonString.of("bar\n"));
+        assertEquals(object.hashCode(), reordered.hashCode());
+        assertEquals(object, reordered);
+        assertEquals(reordered, object);
+
+        final JsonObject different = JsonObject.of("foo", JsonString.of("bar\n"), "baz", JsonArray.of(JsonLong.of(2)));
+        different.hashCode();
+        assertNotEquals(object, different);
+        assertNotEquals(different, object);
+    }
+
+    @Test
+    public void testGet() {
+        final JsonObject small = JsonObject.ofUnsafe(
+                new String[] { "foo", "bar", "foo" },
+                new JsonValue[] { JsonLong.of(1), JsonLong.of(2), JsonLong.of(3) });
+        assertEquals(JsonLong.of(1), small.get("foo"));
+        assertEquals(JsonLong.of(2), small.get("bar"));
+        assertEquals(null, small.get("baz"));
+        assertEquals(null, small.get(null));
+        assertEquals(null, small.get(JsonString.of("foo")));
+        assertTrue(small.containsKey("foo"));
+        assertFalse(small.containsKey("baz"));
+
+        final String[] keys = new String[301];
+        final JsonValue[] values = new JsonValue[301];
+        for (int i = 0; i < 300; i++) {
+            keys[i] = "key" + i;
+            values[i] = JsonLong.of(i);
+        }
+        keys[300] = "key42";
+        values[300] = JsonLong.of(-1);
+        final JsonObject large = JsonObject.ofUnsafe(keys, values);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(JsonLong.of(i), large.get("key" + i));
+            assertTrue(large.containsKey("key" + i));
+        }
+        assertEquals(JsonLong.of(42), large.get("key42"));
+        assertEquals(null, large.get("key300"));
+        assertFalse(large.containsKey("key300"));
+        assertFalse(large.containsKey(null));
+    }
+
+    @Test
+    public void testLargeUnsafeModified() {
+        final String[] keys = new String[20];
+        final JsonValue[] values = new JsonValue[20];
+        for (int i = 0; i < 20; i++) {
+            keys[i] = "key" + i;
+            values[i] = JsonLong.of(i);
+        }
+        final JsonObject object = JsonObject.ofUnsafe(keys, values);
+        assertEquals(JsonLong.of(10), object.get("key10"));
+
+        // Modifying the array given to #ofUnsafe is visible, same as small JSON objects.
+        keys[10] = "modified";
+        assertNull(object.get("key10"));
+        assertFalse(object.containsKey("key10"));
+        assertEquals(JsonLong.of(10), object.get("modified"));
+        assertTrue(object.containsKey("modified"));
+    }
+
+    @Test
+    public void testIndexedAccess() {
+        final JsonObject jsonObject = JsonObject.of(
+                "foo", JsonLong.of(1),
+                "bar", JsonString.of("baz"));
+        assertEquals("foo", jsonObject.keyAt(0));
+        assertEquals(JsonLong.of(1), jsonObject.valueAt(0));
+        assertEquals("bar", jsonObject.keyAt(1));
+        assertEquals(JsonString.of("baz"), jsonObject.valueAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> jsonObject.keyAt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> jsonObject.valueAt(-1));
+
+        final LinkedHashMap<String, JsonValue> visited = new LinkedHashMap<>();
+        jsonObject.forEach(visited::put);
+        assertEquals(jsonObject, JsonObject.ofMap(visited));
+        assertEquals("foo", visited.keySet().iterator().next());
+        assertThrows(NullPointerException.class, () -> jsonObject.forEach(null));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testWriteMsgpack() throws IOException {
+        final JsonObject object = JsonObject.of(
+                "foo", JsonArray.of(JsonLong.of(1), JsonDouble.of(2.5), JsonNull.NULL, JsonBoolean.TRUE),
+                "bar", JsonObject.of("baz", JsonString.of("\u3042")),  // Non-ASCII characters
+                "qux", JsonLong.of(Long.MIN_VALUE));
+        final MessageBufferPacker expected = MessagePack.newDefaultBufferPacker();
+        object.toMsgpack().writeTo(expected);
+
+        final JsonObject fresh = JsonObject.ofUnsafe(
+                new String[] { "foo", "bar", "qux" },
+                new JsonValue[] { object.get("foo"), object.get("bar"), object.get("qux") });
+        final MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        fresh.writeMsgpack(packer);
+        assertArrayEquals(expected.toByteArray(), packer.toByteArray());
+
+        final NioBuffer buffer = NioBuffer.allocateDirect(64);
+        buffer.limit(3);
+        final int written = object.writeMsgpack(buffer);
+        assertEquals(expected.toByteArray().length, written);
+        assertEquals(3 + written, buffer.limit());
+        final byte[] actual = new byte[written];
+        buffer.getBytes(3, actual, 0, written);
+        assertArrayEquals(expected.toByteArray(), actual);
+
+        // A large string is copied directly into the buffer.
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            large.append((char) ('a' + i % 26));
+        }
+        final JsonArray largeArray = JsonArray.of(JsonString.of(large.toString()), JsonLong.of(7));
+        final NioBuffer largeBuffer = NioBuffer.allocateDirect(4096);
+        largeArray.writeMsgpack(largeBuffer);
+        final byte[] largeBytes = new byte[largeBuffer.limit()];
+        largeBuffer.getBytes(0, largeBytes, 0, largeBytes.length);
+        assertEquals(largeArray, JsonValue.fromMsgpack(MessagePack.newDefaultUnpacker(largeBytes).unpackValue()));
+
+        final NioBuffer small = NioBuffer.allocateDirect(8);
+        assertThrows(BufferOverflowException.class, () -> object.writeMsgpack(small));
+        assertEquals(0, small.limit());
+
+        // The packer reused by this thread does not carry over the bytes left by the failure above.
+        final NioBuffer twice = NioBuffer.allocateDirect(128);
+        final int first = object.writeMsgpack(twice);
+        final int second = object.writeMsgpack(twice);
+        assertEquals(first, second);
+        assertEquals(first + second, twice.limit());
+        final byte[] secondBytes = new byte[second];
+        twice.getBytes(first, secondBytes, 0, second);
+        assertArrayEquals(expected.toByteArray(), secondBytes);
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        final JsonObject jsonObject = JsonObject.of(
+                "foo\n\u0001", JsonArray.of(JsonLong.of(1), JsonDouble.of(1.5), JsonNull.NULL, JsonBoolean.TRUE),
+                "\u3042", JsonString.of("\"\\\ud83d\ude00\u00e9"),  // Non-ASCII characters
+                "lit", JsonLong.withLiteral(12, "1.2e1"),
+                "empty", JsonObject.of("a", JsonArray.of()));
+        final String expected = "{\"foo\\n\\u0001\":[1,1.5,null,true],\"\u3042\":\"\\\"\\\\\ud83d\ude00\u00e9\","  // Non-ASCII characters
+                + "\"lit\":1.2e1,\"empty\":{\"a\":[]}}";
+        assertEquals(expected, jsonObject.toJson());
+
+        final StringBuilder builder = new StringBuilder();
+        jsonObject.writeJson(builder);
+        assertEquals(expected, builder.toString());
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jsonObject.writeJson(outputStream);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+
+        // A large value crossing the internal buffer boundary, with an unpaired surrogate.
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            large.append("\u00e9\ud83d\ude00x");  // Non-ASCII characters
+        }
+        large.append("\ud83d");  // Non-ASCII characters
+        final JsonString jsonString = JsonString.of(large.toString());
+        final ByteArrayOutputStream largeOutputStream = new ByteArrayOutputStream();
+        jsonString.writeJson(largeOutputStream);
+        assertArrayEquals(jsonString.toJson().getBytes(StandardCharsets.UTF_8), largeOutputStream.toByteArray());
+    }
+
+    @Test
+    public void testWriteJsonBuffer() {
+        final JsonObject jsonObject = JsonObject.of(
+                "foo", JsonArray.of(JsonLong.of(1), JsonDouble.of(1.5), JsonNull.NULL, JsonBoolean.TRUE),
+                "\u3042", JsonString.of("\ud83d\ude00"));  // Non-ASCII characters
+        final byte[] expected = jsonObject.toJson().getBytes(StandardCharsets.UTF_8);
+
+        final NioBuffer buffer = NioBuffer.allocateDirect(64);
+        buffer.limit(3);
+        final int written = jsonObject.writeJson(buffer);
+        assertEquals(expected.length, written);
+        assertEquals(3 + written, buffer.limit());
+        final byte[] actual = new byte[written];
+        buffer.getBytes(3, actual, 0, written);
+        assertArrayEquals(expected, actual);
+
+        // Appended after the limit.
+        assertEquals(4, JsonLong.of(1234).writeJson(buffer));
+        assertEquals(3 + written + 4, buffer.limit());
+
+        // The limit is not changed on overflow, even if a part of the text fits.
+        final NioBuffer small = NioBuffer.allocateDirect(expected.length - 1);
+        small.limit(0);
+        assertThrows(BufferOverflowException.class, () -> jsonObject.writeJson(small));
+        assertEquals(0, small.limit());
+
+        final NioBuffer exact = NioBuffer.allocateDirect(expected.length);
+        exact.limit(0);
+        assertEquals(expected.length, jsonObject.writeJson(exact));
+        assertEquals(expected.length, exact.limit());
+    }
 }
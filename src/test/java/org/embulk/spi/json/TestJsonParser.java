@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import org.embulk.spi.Buffer;
+import org.embulk.spi.DataException;
+import org.embulk.spi.FileInput;
+import org.embulk.spi.NioBuffer;
+import org.junit.jupiter.api.Test;
+
+public class TestJsonParser {
+    @Test
+    public void testScalars() {
+        assertEquals(JsonNull.NULL, JsonValue.parse("null"));
+        assertEquals(JsonBoolean.TRUE, JsonValue.parse(" true "));
+        assertEquals(JsonBoolean.FALSE, JsonValue.parse("\nfalse\t"));
+        assertEquals(JsonLong.of(0), JsonValue.parse("0"));
+        assertEquals(JsonLong.of(-123), JsonValue.parse("-123"));
+        assertEquals(JsonLong.of(Long.MAX_VALUE), JsonValue.parse("9223372036854775807"));
+        assertEquals(JsonLong.of(Long.MIN_VALUE), JsonValue.parse("-9223372036854775808"));
+        assertEquals(JsonDouble.of(1.5), JsonValue.parse("1.5"));
+        assertEquals(JsonString.of("foo"), JsonValue.parse("\"foo\""));
+        assertEquals(JsonString.of("a\"b\\c/d\b\f\n\r\t\u0001"), JsonValue.parse("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u0001\""));
+    }
+
+    @Test
+    public void testLiterals() {
+        // Canonical literals are not kept.
+        assertEquals("1.5", JsonValue.parse("1.5").toJson());
+        assertEquals("\"foo\\n\"", JsonValue.parse("\"foo\\n\"").toJson());
+        assertEquals("\"foo\\n\"", JsonValue.parse("\"foo\\n\"").toString());
+
+        // Non-canonical literals are kept.
+        assertEquals("-0", JsonValue.parse("-0").toJson());
+        assertEquals("1e3", JsonValue.parse("1e3").toJson());
+        assertEquals(1000.0, JsonValue.parse("1e3").asJsonDouble().doubleValue());
+        assertEquals("1.50", JsonValue.parse("1.50").toJson());
+        assertEquals("\"\\u0041\\/\"", JsonValue.parse("\"\\u0041\\/\"").toJson());
+        assertEquals("A/", JsonValue.parse("\"\\u0041\\/\"").asJsonString().getString());
+
+        // Integral numbers out of the range of long.
+        final JsonValue large = JsonValue.parse("12345678901234567890");
+        assertTrue(large.isJsonDouble());
+        assertEquals("12345678901234567890", large.toJson());
+    }
+
+    @Test
+    public void testNested() {
+        final JsonValue parsed = JsonValue.parse(
+                "{\"foo\": [1, 2.5, {\"bar\": null}], \"baz\": {}, \"qux\": [], \"foo\": \"dup\"}");
+        assertEquals(JsonObject.ofUnsafe(
+                new String[] { "foo", "baz", "qux", "foo" },
+                new JsonValue[] {
+                    JsonArray.of(JsonLong.of(1), JsonDouble.of(2.5), JsonObject.of("bar", JsonNull.NULL)),
+                    JsonObject.of(),
+                    JsonArray.of(),
+                    JsonString.of("dup") }).toJson(),
+                parsed.toJson());
+        assertEquals(4, parsed.asJsonObject().size());
+
+        final StringBuilder many = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            many.append(i == 0 ? "" : ",").append(i);
+        }
+        many.append("]");
+        assertEquals(100, JsonValue.parse(many).asJsonArray().size());
+    }
+
+    @Test
+    public void testBytes() {
+        final byte[] bytes = "xx{\"\u3042\": \"\ud83d\ude00\"}yy".getBytes(StandardCharsets.UTF_8);  // Non-ASCII characters
+        assertEquals(
+                JsonObject.of("\u3042", JsonString.of("\ud83d\ude00")),  // Non-ASCII characters
+                JsonValue.parse(bytes, 2, bytes.length - 4));
+    }
+
+    @Test
+    public void testInvalid() {
+        final String[] invalids = {
+            "", " ", "nul", "tru", "True", "01", "-", "1.", ".5", "1e", "1e+", "+1", "1 2", "\"foo", "\"\\x\"", "\"\\u12\"",
+            "\"\t\"", "[1,]", "[1 2]", "{\"a\" 1}", "{\"a\":1,}", "{a:1}", "[", "{", "NaN", "1e400", "[]]",
+        };
+        for (final String invalid : invalids) {
+            assertThrows(JsonParseException.class, () -> JsonValue.parse(invalid), invalid);
+        }
+        assertThrows(DataException.class, () -> JsonValue.parse("[1,"));
+
+        final StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            deep.append('[');
+        }
+        assertThrows(JsonParseException.class, () -> JsonValue.parse(deep));
+    }
+
+    @Test
+    public void testInvalidUtf8() {
+        final byte[][] invalids = {
+            { '"', (byte) 0xff, '"' },
+            { '"', (byte) 0xe3, (byte) 0x81, '"' },  // Truncated
+            { '"', (byte) 0xc0, (byte) 0xaf, '"' },  // Overlong
+            { '"', (byte) 0xed, (byte) 0xa0, (byte) 0x80, '"' },  // Surrogate
+        };
+        for (final byte[] invalid : invalids) {
+            assertThrows(JsonParseException.class, () -> JsonValue.parse(invalid, 0, invalid.length), Arrays.toString(invalid));
+            try (final JsonParser.StreamReader reader = JsonParser.openStream(new ByteArrayInputStream(invalid))) {
+                assertThrows(JsonParseException.class, reader::readNext, Arrays.toString(invalid));
+            }
+        }
+    }
+
+    @Test
+    public void testStream() {
+        final StringBuilder lines = new StringBuilder("\ufeff");  // Byte order mark
+        for (int i = 0; i < 2000; i++) {
+            lines.append("{\"id\":").append(i).append(",\"name\":\"n\\u0041me").append(i).append("\",\"v\":1.25e1}\n");
+        }
+        final byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        try (final JsonParser.StreamReader reader = JsonParser.openStream(new ByteArrayInputStream(bytes))) {
+            for (int i = 0; i < 2000; i++) {
+                final JsonObject object = reader.readNext().asJsonObject();
+                assertEquals(JsonLong.of(i), object.get("id"));
+                assertEquals("nAme" + i, object.get("name").asJsonString().getString());
+                assertEquals("\"n\\u0041me" + i + "\"", object.get("name").toJson());
+                assertEquals("1.25e1", object.get("v").toJson());
+            }
+            assertNull(reader.readNext());
+            assertNull(reader.readNext());
+        }
+    }
+
+    @Test
+    public void testFileInput() {
+        final byte[] bytes = "[1, \"\u3042\"]\n{\"a\": true}".getBytes(StandardCharsets.UTF_8);  // Non-ASCII characters
+        final ArrayDeque<Buffer> buffers = new ArrayDeque<>();
+        for (int i = 0; i < bytes.length; i += 3) {
+            buffers.add(NioBuffer.wrap(ByteBuffer.wrap(Arrays.copyOfRange(bytes, i, Math.min(i + 3, bytes.length)))));
+        }
+        final FileInput fileInput = new FileInput() {
+            @Override
+            public boolean nextFile() {
+                return false;
+            }
+
+            @Override
+            public Buffer poll() {
+                return buffers.poll();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (final JsonParser.StreamReader reader = JsonParser.openStream(fileInput)) {
+            assertEquals(JsonArray.of(JsonLong.of(1), JsonString.of("\u3042")), reader.readNext());  // Non-ASCII characters
+            assertEquals(JsonObject.of("a", JsonBoolean.TRUE), reader.readNext());
+            assertNull(reader.readNext());
+        }
+    }
+}
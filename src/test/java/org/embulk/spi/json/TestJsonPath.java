@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.msgpack.value.ValueFactory;
+
+public class TestJsonPath {
+    @Test
+    public void testExtract() {
+        final JsonValue value = JsonValue.parse(
+                "{\"user\": {\"id\": 42, \"tags\": [\"a\", {\"b c\": true}]}, \"event\": {\"ts\": \"2026-01-01\"}, \"user\": null}");
+
+        assertSame(value, JsonPath.compile("$").extract(value));
+        assertEquals(JsonLong.of(42), JsonPath.compile("$.user.id").extract(value));
+        assertEquals(JsonString.of("2026-01-01"), JsonPath.compile("$['event'][\"ts\"]").extract(value));
+        assertEquals(JsonString.of("a"), JsonPath.compile("$.user.tags[0]").extract(value));
+        assertEquals(JsonBoolean.TRUE, JsonPath.compile("$.user.tags[1]['b c']").extract(value));
+
+        assertNull(JsonPath.compile("$.user.name").extract(value));
+        assertNull(JsonPath.compile("$.user.tags[2]").extract(value));
+        assertNull(JsonPath.compile("$.user.id.foo").extract(value));
+        assertNull(JsonPath.compile("$.user[0]").extract(value));
+        assertNull(JsonPath.compile("$.event.ts[0]").extract(value));
+        assertNull(JsonPath.compile("$.user.id").extract(null));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testExtractFromMsgpack() {
+        final JsonValue value = JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("skipped"), ValueFactory.newString("x"),
+                ValueFactory.newString("a"), ValueFactory.newArray(
+                        ValueFactory.newArray(ValueFactory.newNil()),
+                        ValueFactory.newMap(ValueFactory.newString("b"), ValueFactory.newInteger(7)))));
+
+        // Only the values on the path are converted.
+        assertEquals(JsonLong.of(7), JsonPath.compile("$.a[1].b").extract(value));
+        assertNull(JsonPath.compile("$.a[1].c").extract(value));
+    }
+
+    @Test
+    public void testCompile() {
+        assertEquals("$.a['b'][3]", JsonPath.compile("$.a['b'][3]").toString());
+
+        final String[] invalids = {
+            "", "a", "$.", "$..a", "$a", "$[", "$[a]", "$[-1]", "$['a'", "$['a]", "$[1", "$[99999999999]", "$.a b", "$.*",
+        };
+        for (final String invalid : invalids) {
+            assertThrows(IllegalArgumentException.class, () -> JsonPath.compile(invalid), invalid);
+        }
+        assertThrows(NullPointerException.class, () -> JsonPath.compile(null));
+    }
+}
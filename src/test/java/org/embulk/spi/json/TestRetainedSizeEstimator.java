@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 The Embulk project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.embulk.spi.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.msgpack.value.ValueFactory;
+
+public class TestRetainedSizeEstimator {
+    @Test
+    public void testScalars() {
+        assertEquals(0, JsonNull.NULL.estimateRetainedSizeInBytes());
+        assertEquals(0, JsonBoolean.TRUE.estimateRetainedSizeInBytes());
+        assertEquals(0, JsonObject.of().estimateRetainedSizeInBytes());
+        assertEquals(0, JsonArray.of().estimateRetainedSizeInBytes());
+
+        // JsonLong (24) + ImmutableLongValueImpl (24)
+        assertEquals(48, JsonLong.of(1).estimateRetainedSizeInBytes());
+        assertEquals(48, JsonDouble.of(1.5).estimateRetainedSizeInBytes());
+
+        // JsonString (24) + ImmutableStringValueImpl (24) + byte[3] (24) + String (24) + its array (24)
+        assertEquals(120, JsonString.of("foo").estimateRetainedSizeInBytes());
+    }
+
+    @Test
+    public void testShallowSize() {
+        // JsonObject has 7 references, a boolean, and an int, and 2 references inherited from AbstractMap.
+        assertEquals(56, RetainedSizeEstimator.shallowSizeOf(JsonObject.class));
+        // JsonArray has 5 references, a boolean, and an int, and an int inherited from AbstractList.
+        assertEquals(48, RetainedSizeEstimator.shallowSizeOf(JsonArray.class));
+        assertEquals(24, RetainedSizeEstimator.shallowSizeOf(JsonLong.class));
+        assertEquals(24, RetainedSizeEstimator.shallowSizeOf(JsonString.class));
+    }
+
+    @Test
+    public void testShared() {
+        final String key = "key";
+        final JsonValue value = JsonLong.of(42);
+        final JsonObject inner1 = JsonObject.of(key, value);
+        final JsonObject inner2 = JsonObject.of(key, value);
+        final JsonArray outer = JsonArray.of(inner1, inner2);
+
+        final long inner = inner1.estimateRetainedSizeInBytes();
+        // JsonObject (56) + String[1] (24) + JsonValue[1] (24) + "key" (48) + JsonLong.of(42) (48)
+        assertEquals(200, inner);
+        // JsonArray (48) + JsonValue[2] (24) + two JsonObjects sharing the key and the value.
+        assertEquals(48 + 24 + inner + (inner - 48 - 48), outer.estimateRetainedSizeInBytes());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testFromMsgpack() {
+        final JsonObject object = JsonValue.fromMsgpack(ValueFactory.newMap(
+                ValueFactory.newString("foo"), ValueFactory.newInteger(1),
+                ValueFactory.newString("bar"), ValueFactory.newInteger(2))).asJsonObject();
+        final long lazy = object.estimateRetainedSizeInBytes();
+
+        // Converting a value adds only the JsonLong wrapper, as ImmutableLongValueImpl is shared with the MessagePack form.
+        object.get("foo");
+        assertEquals(lazy + 24, object.estimateRetainedSizeInBytes());
+    }
+
+    /**
+     * Verifies the estimation against the heap usage measured around allocating many JSON values.
+     *
+     * <p>It is opt-in with {@code -Dorg.embulk.spi.json.measureHeap=true} because the measurement depends on the JVM: it
+     * does not work with {@code -XX:+DisableExplicitGC}, with other object layouts than compressed references, or on a
+     * heap shared with other busy tests. The other tests check the estimation deterministically.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "org.embulk.spi.json.measureHeap", matches = "true")
+    public void testAgainstMeasuredHeap() {
+        final int count = 20000;
+        final JsonValue[] values = new JsonValue[count];
+        final String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            texts[i] = "{\"id\":" + (1000000 + i) + ",\"name\":\"user" + (1000000 + i) + "\",\"tags\":[\"a\",\"b\",\"\u3042\"],"  // Non-ASCII characters
+                    + "\"score\":1.5,\"nested\":{\"ok\":true,\"list\":[1,2,3]}}";
+        }
+
+        final long before = usedHeap();
+        for (int i = 0; i < count; i++) {
+            values[i] = JsonValue.parse(texts[i]);
+        }
+        final long after = usedHeap();
+
+        long estimated = 0;
+        for (int i = 0; i < count; i++) {
+            estimated += values[i].estimateRetainedSizeInBytes();
+        }
+        final double ratio = (double) estimated / (after - before);
+        assertTrue(0.85 < ratio && ratio < 1.15, "estimated: " + estimated + ", measured: " + (after - before));
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}